@@ -1,12 +1,15 @@
 package com.example;
 
 import com.example.database.DatabaseManager;
+import com.example.database.PragmaProfile;
+import com.example.database.QuizStatsTable;
+import com.example.service.ServiceLocator;
 import com.example.ui.util.SceneManager;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 
 /**
  * Main entry point for the Quiz Platform application.
@@ -23,11 +26,32 @@ public class Main extends Application {
         sceneManager.switchScene(SceneManager.LOGIN, 400, 500);
     }
 
+    @Override
+    public void stop() {
+        // Save queued quiz submissions, then release pooled database connections on exit
+        ServiceLocator.shutdown();
+        DatabaseManager.shutdown();
+    }
+
     public static void main(String[] args) throws SQLException {
-        // Connect with database
-        Connection conn = DatabaseManager.connectWithDatabase();
-        // Create all the tables if necessary
-        DatabaseManager.createAllTables(conn);
+        // Optional: --db-profile=durable|throughput (same as -Dquiz.db.profile)
+        for (String arg : args) {
+            if (arg.startsWith("--db-profile=")) {
+                DatabaseManager.setPragmaProfile(PragmaProfile.fromName(arg.substring("--db-profile=".length())));
+            }
+        }
+
+        // Create all the tables if necessary (runs on the writer connection)
+        DatabaseManager.createAllTables();
+
+        // Optional: --rebuild-stats recomputes the quizStats rows from the scores table
+        if (Arrays.asList(args).contains("--rebuild-stats")) {
+            DatabaseManager.executeInTransaction(conn -> {
+                QuizStatsTable.rebuild(conn);
+                return null;
+            });
+            System.out.println("Rebuilt quiz statistics.");
+        }
 
         launch(args);
     }
@@ -0,0 +1,347 @@
+package com.example.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of SQLite connections shared by all services.
+ *
+ * A connection is leased with {@link #getConnection()} and handed back by calling
+ * {@code close()} on it, so the usual try-with-resources blocks keep working.
+ * Leases are re-entrant per thread: a service method that calls another service method
+ * while holding a connection gets the same physical connection back instead of a second
+ * one, so nested calls can never exhaust the pool.
+ *
+ * Each physical connection also keeps a {@link StatementCache}: {@code prepareStatement(sql)}
+ * on a leased connection reuses an already prepared statement for the same SQL.
+ */
+public class ConnectionPool {
+
+    /**
+     * Opens a new physical connection when the pool needs one.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Slot> idle = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private volatile boolean shutdown;
+
+    // Counters
+    private final AtomicInteger activeLeases = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong totalLeases = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong failedValidations = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis) {
+        this(factory, maxSize, borrowTimeoutMillis, 0);
+    }
+
+    /**
+     * @param statementCacheSize prepared statements kept per connection (0 disables the cache)
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1, got " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Lease a connection. Close it to return it to the pool.
+     * @throws SQLException if no connection became free within the borrow timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        // Same thread already holds a lease: share it, unless its last handle was closed
+        // on another thread in the meantime
+        Lease lease = currentLease.get();
+        if (lease != null) {
+            if (lease.share()) {
+                return lease.newHandle();
+            }
+            currentLease.remove();
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        Slot slot;
+        try {
+            slot = takeValidConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        lease = new Lease(slot);
+        currentLease.set(lease);
+        activeLeases.incrementAndGet();
+        totalLeases.incrementAndGet();
+        return lease.newHandle();
+    }
+
+    // Reuse an idle connection if it still works, otherwise open a fresh one
+    private Slot takeValidConnection() throws SQLException {
+        Slot candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate.physical)) {
+                return candidate;
+            }
+            failedValidations.incrementAndGet();
+            discard(candidate);
+        }
+        Connection created = factory.open();
+        if (created == null) {
+            throw new SQLException("Failed to connect to database");
+        }
+        openConnections.incrementAndGet();
+        return new Slot(created, new StatementCache(created, statementCacheSize, statementCounters));
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Lease lease) {
+        // The last handle may be closed on another thread; that thread's own lease stays
+        if (currentLease.get() == lease) {
+            currentLease.remove();
+        }
+        Slot slot = lease.slot;
+        Connection physical = slot.physical;
+        try {
+            if (shutdown || physical.isClosed()) {
+                discard(slot);
+            } else {
+                // Never hand out a connection with a half-finished transaction
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                idle.offerFirst(slot);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            discard(slot);
+        } finally {
+            activeLeases.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void discard(Slot slot) {
+        openConnections.decrementAndGet();
+        slot.statements.closeAll();
+        try {
+            slot.physical.close();
+        } catch (SQLException ignored) {
+            // already unusable
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Close all idle connections and refuse new leases.
+     * Connections still leased are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        Slot slot;
+        while ((slot = idle.pollFirst()) != null) {
+            discard(slot);
+        }
+    }
+
+    // ========== Statistics ==========
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveLeases() {
+        return activeLeases.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public long getTotalLeases() {
+        return totalLeases.get();
+    }
+
+    public long getFailedValidations() {
+        return failedValidations.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long leases = totalLeases.get();
+        return leases == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / leases;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    // Prepared statement reuse across all connections of this pool
+    public StatementCache.Counters getStatementCacheCounters() {
+        return statementCounters;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool{max=%d, open=%d, active=%d, idle=%d, leases=%d, avgWait=%.2fms, maxWait=%.2fms}",
+                maxSize, getOpenConnections(), getActiveLeases(), getIdleCount(), getTotalLeases(),
+                getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    /**
+     * A physical connection and the statements prepared on it.
+     */
+    private static final class Slot {
+        private final Connection physical;
+        private final StatementCache statements;
+
+        private Slot(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * One physical connection checked out by one thread, possibly shared by nested callers.
+     */
+    private final class Lease {
+        private final Slot slot;
+        private final Connection physical;
+        // Open handles; handles may be closed on any thread (async services, writer thread)
+        private final AtomicInteger holders = new AtomicInteger(1);
+
+        private Lease(Slot slot) {
+            this.slot = slot;
+            this.physical = slot.physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        // Add a handle, unless the lease has already been released
+        private boolean share() {
+            int current;
+            do {
+                current = holders.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!holders.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void handleClosed() {
+            if (holders.decrementAndGet() == 0) {
+                release(this);
+            }
+        }
+    }
+
+    /**
+     * The object callers actually see. Closing it gives the lease back instead of
+     * closing the physical connection.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final Lease lease;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Handle(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    // Only the first close counts, whichever thread it comes from
+                    if (closed.compareAndSet(false, true)) {
+                        lease.handleClosed();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || lease.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + lease.physical + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                return lease.slot.statements.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(lease.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
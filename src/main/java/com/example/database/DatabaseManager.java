@@ -5,34 +5,202 @@ import javax.swing.*;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import static com.example.model.User.Role.*;
 
 public class DatabaseManager {
 
     // ======= CONNECTING DATABASE ======
+    // Settings can be overridden at startup with -Dquiz.db.path=..., -Dquiz.db.poolSize=... etc.
+    private static final String DB_PATH = System.getProperty("quiz.db.path", "group5Quiz.db");
+    private static final int POOL_SIZE = Integer.getInteger("quiz.db.poolSize", 4);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("quiz.db.borrowTimeoutMs", 30_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("quiz.db.statementCacheSize", 64);
+    // -Dquiz.stats=true prints the writer, pool and statement cache counters at shutdown
+    private static final boolean PRINT_STATS = Boolean.getBoolean("quiz.stats");
+
+    private static PragmaProfile profile = PragmaProfile.fromName(System.getProperty("quiz.db.profile", "durable"));
+    private static ConnectionPool pool;
+    private static DatabaseWriter writer;
+
+    // Choose the PRAGMA profile; must be called before the first connection is opened
+    public static synchronized void setPragmaProfile(PragmaProfile newProfile) {
+        if (pool != null || writer != null) {
+            throw new IllegalStateException("Database profile must be chosen before the first connection is opened");
+        }
+        profile = newProfile;
+    }
+
+    public static synchronized PragmaProfile getPragmaProfile() {
+        return profile;
+    }
+
+    // Shared pool of read-only connections used by every query; created on first use
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            if (writer == null) {
+                System.out.println("Using database profile: " + profile);
+            }
+            pool = new ConnectionPool(() -> openConnection(true), POOL_SIZE, BORROW_TIMEOUT_MS,
+                    STATEMENT_CACHE_SIZE);
+        }
+        return pool;
+    }
+
+    // The single writer all inserts/updates/deletes go through; created on first use
+    public static synchronized DatabaseWriter getWriter() {
+        if (writer == null) {
+            if (pool == null) {
+                System.out.println("Using database profile: " + profile);
+            }
+            writer = new DatabaseWriter(() -> openConnection(false), BORROW_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+        }
+        return writer;
+    }
+
+    // Lease a pooled read-only connection. Always close it (try-with-resources) to hand it back.
+    // Use executeWrite() for anything that changes data.
+    public static Connection getConnection() throws SQLException {
+        return getPool().getConnection();
+    }
+
+    // Run the work on the writer connection (in order with all other writes) and return its result
+    public static <T> T executeWrite(SqlWork<T> work) throws SQLException {
+        return getWriter().execute(work);
+    }
+
+    // Same as executeWrite, but as one transaction: committed if the work returns, rolled back
+    // if it throws. Called from inside another transaction, it just joins that one.
+    public static <T> T executeInTransaction(SqlWork<T> work) throws SQLException {
+        return executeWrite(conn -> {
+            if (!conn.getAutoCommit()) {
+                return work.run(conn);
+            }
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    // Run several reads on one pooled connection as one read transaction, so they all see the
+    // same snapshot even if a write commits in between. Called inside another, it joins that one.
+    public static <T> T executeRead(SqlWork<T> work) throws SQLException {
+        try (Connection conn = getConnection()) {
+            if (!conn.getAutoCommit()) {
+                return work.run(conn);
+            }
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } finally {
+                // Ends the transaction if the work threw; nothing was written, so nothing is lost
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Kept for older callers: same as getConnection(), but returns null instead of throwing
     public static Connection connectWithDatabase(){
+        try {
+            return getConnection();
+        } catch (SQLException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Opens a brand-new physical connection; only the pools should call this
+    private static Connection openConnection(boolean readOnly) throws SQLException {
         // 1. The Connection String
-        final String URL = "jdbc:sqlite:group5Quiz.db"; // "jdbc:sqlite:" is the protocol
+        final String URL = "jdbc:sqlite:" + DB_PATH; // "jdbc:sqlite:" is the protocol
         System.out.println("Connecting to database...");
         // 2. Establish Connection
         // DriverManager asks the driver to open a link to the URL
+        Connection conn = DriverManager.getConnection(URL);
+        // 3. Apply journal/sync/cache settings of the active profile
         try {
-            Connection conn = DriverManager.getConnection(URL);
-            if (conn != null) {
-                System.out.println("Connected to SQLite successfully!");
-                // We will call our helper methods here later
-                return conn;
+            getPragmaProfile().apply(conn);
+            // 4. Reader connections refuse writes, so nothing bypasses the writer by accident
+            if (readOnly) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA query_only = 1");
+                }
             }
         } catch (SQLException e) {
-            // If something goes wrong (like the driver is missing), this prints the error.
-            System.out.println("Error: " + e.getMessage());
+            conn.close();
+            throw e;
+        }
+        System.out.println("Connected to SQLite successfully!");
+        return conn;
+    }
+
+    // Close every pooled connection (called when the application exits)
+    public static synchronized void shutdown() {
+        // Writer first, so queued writes still complete
+        if (writer != null) {
+            if (PRINT_STATS) {
+                System.out.println("Closing database writer: " + writer);
+            }
+            writer.shutdown();
+            writer = null;
+        }
+        if (pool != null) {
+            if (PRINT_STATS) {
+                System.out.println("Closing database connections: " + pool);
+                System.out.println(pool.getStatementCacheCounters());
+            }
+            pool.shutdown();
+            pool = null;
         }
-        return null;
     }
 
     // ========= CREATING TABLES ==========
+    // Schema history, oldest first. Add new changes as a new migration at the end;
+    // never edit one that has already shipped. See SchemaMigrator.
+    private static final SchemaMigrator MIGRATOR = new SchemaMigrator(List.of(
+            new SchemaMigrator.Migration(1, "base tables and default admin", DatabaseManager::createBaseTables),
+            new SchemaMigrator.Migration(2, "lookup indexes", DatabaseManager::createIndexes),
+            new SchemaMigrator.Migration(3, "attempt timestamps on scores", DatabaseManager::addAttemptTimestamps),
+            new SchemaMigrator.Migration(4, "attempt ids", DatabaseManager::addAttemptIds),
+            new SchemaMigrator.Migration(5, "quiz max score", DatabaseManager::addQuizMaxScore),
+            new SchemaMigrator.Migration(6, "per-quiz statistics", QuizStatsTable::create)
+    ));
+
+    // Bring the database up to the current schema; does no DDL when it is already current
+    public static void createAllTables() throws SQLException {
+        executeWrite(conn -> {
+            createAllTables(conn);
+            return null;
+        });
+    }
+
+    // Same, on a connection the caller already has; it must be writable (see executeWrite)
     public static void createAllTables(Connection conn) throws SQLException {
+        MIGRATOR.migrate(conn);
+    }
+
+    public static int getSchemaVersion(Connection conn) throws SQLException {
+        return SchemaMigrator.getSchemaVersion(conn);
+    }
+
+    public static int getLatestSchemaVersion() {
+        return MIGRATOR.getLatestVersion();
+    }
+
+    // Migration 1: the original schema. Uses IF NOT EXISTS so files created before
+    // migrations existed (user_version 0) are adopted as they are.
+    private static void createBaseTables(Connection conn) throws SQLException {
         // Create tables
         createPeopleTable(conn);
         createGroupTable(conn);
@@ -42,7 +210,7 @@ public class DatabaseManager {
         createQuizQuestionTable(conn);
         createScoresTable(conn);
         createMcqStudentAnswerTable(conn);
-        
+
         // Insert default admin user if database is new
         insertDefaultUsers(conn);
     }
@@ -73,6 +241,156 @@ public class DatabaseManager {
             System.out.println("Default admin user created: admin@quiz.com / admin123");
         }
     }
+    // ========= INDEXES ==========
+    // Every lookup the services run filters on one of these, so none of them needs a full table scan.
+    // "Covering" indexes also hold the selected columns, so SQLite never has to visit the table row.
+    private static final String[] INDEXES = {
+            // login, getUserByEmail, getTeacherId/getStudentId (email + role)
+            "CREATE INDEX IF NOT EXISTS idx_people_email_role ON people(email, role)",
+            // getUsersByRole, countUsersByRole
+            "CREATE INDEX IF NOT EXISTS idx_people_role ON people(role)",
+            // getGroupsByTeacher, getQuizzesByTeacher
+            "CREATE INDEX IF NOT EXISTS idx_groups_teacher ON groups(teacher_id)",
+            // getGroupByName, getGroupId
+            "CREATE INDEX IF NOT EXISTS idx_groups_name ON groups(name)",
+            // isStudentEnrolled, getStudentsInGroup; also stops duplicate enrollments
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_enrollment_group_student ON enrollment(group_id, student_id)",
+            // getGroupsByStudent, getAssignedQuizzes
+            "CREATE INDEX IF NOT EXISTS idx_enrollment_student_group ON enrollment(student_id, group_id)",
+            // getQuizzesByGroup
+            "CREATE INDEX IF NOT EXISTS idx_quiz_group ON quiz(group_id)",
+            // getQuestionsByQuiz; also stops the same question being linked twice
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_quizquestion_quiz_question ON quizQuestion(quiz_id, question_id)",
+            // deleteQuestion, answer -> quiz joins
+            "CREATE INDEX IF NOT EXISTS idx_quizquestion_question ON quizQuestion(question_id, quiz_id)",
+            // getStudentAttemptsForQuiz, getAttemptsByQuiz, getNextAttemptNumber, best score (covering)
+            "CREATE INDEX IF NOT EXISTS idx_scores_quiz_student ON scores(quiz_id, student_id, attempt, score)",
+            // getAttemptsByStudent (covering)
+            "CREATE INDEX IF NOT EXISTS idx_scores_student_quiz ON scores(student_id, quiz_id, attempt, score)",
+            // answers of one attempt
+            "CREATE INDEX IF NOT EXISTS idx_answer_student_attempt_question ON mcqStudentAnswer(student_id, attempt, question_id)",
+            // getQuestionAccuracyForQuiz (covering)
+            "CREATE INDEX IF NOT EXISTS idx_answer_question_correct ON mcqStudentAnswer(question_id, is_correct)",
+            // getAttemptsToday
+            "CREATE INDEX IF NOT EXISTS idx_answer_date ON mcqStudentAnswer(date)"
+    };
+
+    // Migration 2
+    private static void createIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Unique indexes cannot be built over duplicate rows left by older versions, so drop those first
+            stmt.executeUpdate("DELETE FROM enrollment WHERE rowid NOT IN "
+                    + "(SELECT MIN(rowid) FROM enrollment GROUP BY group_id, student_id)");
+            stmt.executeUpdate("DELETE FROM quizQuestion WHERE rowid NOT IN "
+                    + "(SELECT MIN(rowid) FROM quizQuestion GROUP BY quiz_id, question_id)");
+
+            for (String sql : INDEXES) {
+                stmt.execute(sql);
+            }
+            // No ANALYZE: statistics gathered while the tables are tiny make the planner prefer
+            // scans. Without statistics it assumes large tables and uses these indexes.
+            boolean hasStats;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type='table' AND name='sqlite_stat1'")) {
+                hasStats = rs.next();
+            }
+            if (hasStats) {
+                stmt.executeUpdate("DELETE FROM sqlite_stat1");
+            }
+            System.out.println("Indexes are ready.");
+        }
+    }
+
+    // Migration 3: store when each attempt was submitted on its score row, so loading an
+    // attempt no longer needs a MAX(date) lookup over its answers.
+    // ISO-8601 text (LocalDateTime.toString), which also sorts in time order.
+    private static void addAttemptTimestamps(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE scores ADD COLUMN attempted_at text");
+            // Existing attempts only know the day they were answered; attempts with no answers stay NULL.
+            // Answers are matched by (student, attempt number, question), so an answer to a question the
+            // student also met in another quiz at the same attempt number cannot be told apart; only the
+            // answers that match this attempt alone are used.
+            stmt.executeUpdate("UPDATE scores SET attempted_at = ("
+                    + "SELECT MAX(sa.date) || 'T00:00' FROM mcqStudentAnswer sa "
+                    + "INNER JOIN quizQuestion qq ON sa.question_id = qq.question_id "
+                    + "WHERE qq.quiz_id = scores.quiz_id AND sa.student_id = scores.student_id "
+                    + "AND sa.attempt = scores.attempt "
+                    + "AND NOT EXISTS (SELECT 1 FROM scores other "
+                    + "INNER JOIN quizQuestion oq ON oq.quiz_id = other.quiz_id "
+                    + "WHERE oq.question_id = sa.question_id AND other.student_id = sa.student_id "
+                    + "AND other.attempt = sa.attempt AND other.quiz_id <> scores.quiz_id))");
+
+            // Rebuild the covering indexes so the attempt loaders stay index-only
+            stmt.execute("DROP INDEX IF EXISTS idx_scores_quiz_student");
+            stmt.execute("DROP INDEX IF EXISTS idx_scores_student_quiz");
+            stmt.execute("CREATE INDEX idx_scores_quiz_student ON scores(quiz_id, student_id, attempt, score, attempted_at)");
+            stmt.execute("CREATE INDEX idx_scores_student_quiz ON scores(student_id, quiz_id, attempt, score, attempted_at)");
+            // getAttemptsToday
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_scores_attempted_at ON scores(attempted_at)");
+            System.out.println("Column 'scores.attempted_at' is ready.");
+        }
+    }
+
+    // Migration 4: give every attempt (score row) a stable id and link its answers to it.
+    // Answers used to be matched to attempts by (student, attempt number) plus a join through
+    // quizQuestion, which also picked up the answers of other quizzes sharing the question.
+    private static void addAttemptIds(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // SQLite cannot add a primary key to a table, so rebuild scores; ids keep the old rowids
+            stmt.execute("CREATE TABLE scores_new (\n"
+                    + " id integer PRIMARY KEY,\n"
+                    + " quiz_id integer NOT NULL,\n"
+                    + " student_id integer NOT NULL,\n"
+                    + " attempt integer NOT NULL,\n"
+                    + " score integer NOT NULL,\n"
+                    + " attempted_at text,\n"
+                    + " FOREIGN KEY (quiz_id) REFERENCES quiz(id),\n"
+                    + " FOREIGN KEY (student_id) REFERENCES people(id)\n"
+                    + ")");
+            stmt.executeUpdate("INSERT INTO scores_new(id, quiz_id, student_id, attempt, score, attempted_at) "
+                    + "SELECT rowid, quiz_id, student_id, attempt, score, attempted_at FROM scores");
+            stmt.execute("DROP TABLE scores");
+            stmt.execute("ALTER TABLE scores_new RENAME TO scores");
+            // Dropped with the old table; every index also holds the id now
+            stmt.execute("CREATE INDEX idx_scores_quiz_student ON scores(quiz_id, student_id, attempt, score, attempted_at)");
+            stmt.execute("CREATE INDEX idx_scores_student_quiz ON scores(student_id, quiz_id, attempt, score, attempted_at)");
+            stmt.execute("CREATE INDEX idx_scores_attempted_at ON scores(attempted_at)");
+
+            stmt.execute("ALTER TABLE mcqStudentAnswer ADD COLUMN attempt_id integer REFERENCES scores(id)");
+            // Existing answers only know (student, attempt number, question). An answer is linked only when
+            // exactly one attempt matches; if the question is shared by several quizzes the student attempted
+            // with that number, there is no telling which one it belongs to, so it stays NULL.
+            String matchingAttempts = "FROM scores s "
+                    + "INNER JOIN quizQuestion qq ON qq.quiz_id = s.quiz_id "
+                    + "WHERE qq.question_id = mcqStudentAnswer.question_id "
+                    + "AND s.student_id = mcqStudentAnswer.student_id AND s.attempt = mcqStudentAnswer.attempt";
+            stmt.executeUpdate("UPDATE mcqStudentAnswer SET attempt_id = (SELECT s.id " + matchingAttempts + ") "
+                    + "WHERE (SELECT COUNT(*) " + matchingAttempts + ") = 1");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM mcqStudentAnswer WHERE attempt_id IS NULL")) {
+                int unlinked = rs.next() ? rs.getInt(1) : 0;
+                if (unlinked > 0) {
+                    System.out.println(unlinked + " old answers match no single attempt and were left without an attempt id.");
+                }
+            }
+            // Answers of an attempt, getAttemptById
+            stmt.execute("CREATE INDEX idx_answer_attempt ON mcqStudentAnswer(attempt_id, question_id)");
+            System.out.println("Column 'scores.id' and 'mcqStudentAnswer.attempt_id' are ready.");
+        }
+    }
+
+    // Migration 5: keep each quiz's total possible score on the quiz row, so percentages need
+    // no question rows. DatabaseQuizService updates it whenever a question is added, changed or removed.
+    private static void addQuizMaxScore(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE quiz ADD COLUMN max_score integer NOT NULL DEFAULT 0");
+            stmt.executeUpdate("UPDATE quiz SET max_score = ("
+                    + "SELECT COALESCE(SUM(m.assigned_score), 0) FROM quizQuestion qq "
+                    + "INNER JOIN mcq m ON m.id = qq.question_id WHERE qq.quiz_id = quiz.id)");
+            System.out.println("Column 'quiz.max_score' is ready.");
+        }
+    }
+
     // People table
     private static void createPeopleTable(Connection conn) throws SQLException {
         // SQL to create a table named 'people' with 6 columns
@@ -0,0 +1,155 @@
+package com.example.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The only place the application writes to the database.
+ *
+ * SQLite allows one writer at a time; when several connections try to write at once the
+ * losers get SQLITE_BUSY. Instead, every insert/update/delete is handed to one thread
+ * ("db-writer") that owns one connection and runs the work in arrival order. Readers use
+ * the separate read-only pool and, thanks to WAL, are never blocked by it.
+ *
+ * Work submitted from the writer thread itself (a write that calls another write) runs
+ * inline on the same connection.
+ */
+public class DatabaseWriter {
+
+    private final ConnectionPool connection;
+    private final ThreadPoolExecutor executor;
+    private volatile Thread writerThread;
+
+    // Counters
+    private final AtomicLong completedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    public DatabaseWriter(ConnectionPool.ConnectionFactory factory, long borrowTimeoutMillis, int statementCacheSize) {
+        // A pool of one: gives the writer the same statement cache and connection validation as readers
+        this.connection = new ConnectionPool(factory, 1, borrowTimeoutMillis, statementCacheSize);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "db-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Run the work on the writer connection and wait for its result.
+     * @throws SQLException whatever the work threw, or if the writer has been shut down
+     */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        if (isWriterThread()) {
+            return runOnWriter(work);
+        }
+
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                recordQueueWait(System.nanoTime() - queuedAt);
+                return runOnWriter(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("Database writer has been shut down", e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // The write may still run; we just stop waiting for it
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("Database write failed", cause);
+        }
+    }
+
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writerThread;
+    }
+
+    private <T> T runOnWriter(SqlWork<T> work) throws SQLException {
+        try (Connection conn = connection.getConnection()) {
+            T result = work.run(conn);
+            completedWrites.incrementAndGet();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            failedWrites.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void recordQueueWait(long nanos) {
+        totalQueueNanos.addAndGet(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Finish the writes already queued, then close the writer connection.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Database writer did not finish in time; " + executor.getQueue().size()
+                        + " writes dropped");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        connection.shutdown();
+    }
+
+    // ========== Statistics ==========
+
+    public int getQueuedWrites() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedWrites() {
+        return completedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    public double getAverageQueueMillis() {
+        long writes = completedWrites.get() + failedWrites.get();
+        return writes == 0 ? 0.0 : totalQueueNanos.get() / 1_000_000.0 / writes;
+    }
+
+    public double getMaxQueueMillis() {
+        return maxQueueNanos.get() / 1_000_000.0;
+    }
+
+    public StatementCache.Counters getStatementCacheCounters() {
+        return connection.getStatementCacheCounters();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DatabaseWriter{queued=%d, completed=%d, failed=%d, avgQueue=%.2fms, maxQueue=%.2fms}",
+                getQueuedWrites(), getCompletedWrites(), getFailedWrites(), getAverageQueueMillis(), getMaxQueueMillis());
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.database;
 
 import com.example.model.User;
+import com.example.quizlogic.StudentAnswer;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static com.example.model.User.Role.*;
 
@@ -16,12 +19,14 @@ public class InsertIntoDatabase {
     // Triggered by: Admin creating a new user
     // Returns: The ID of the newly created user
     public static int insertPeople(Connection conn, String name, String lastName, String email, String password, String role) throws SQLException {
-        // WARNING: In real apps, use 'PreparedStatement' to prevent SQL Injection.
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO people(name, lastname,email,password,role) VALUES('" + name +
-                "', '" + lastName + "', '" + email + "', '" + password + "', '" + role + "')";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO people(name, lastname,email,password,role) VALUES(?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, name);
+            stmt.setString(2, lastName);
+            stmt.setString(3, email);
+            stmt.setString(4, password);
+            stmt.setString(5, role);
+            stmt.executeUpdate();
             System.out.println("Inserted user: " + name + " " + lastName + " with role " + role);
 
             // Get the generated user ID
@@ -40,25 +45,16 @@ public class InsertIntoDatabase {
     public static void insertGroup(Connection conn, String groupName, String teacherEmail) throws SQLException {
         // Retrieve teacher ID first
         int teacherId = RetrieveFromDatabase.getTeacherId(conn, teacherEmail);
-
-        // WARNING: In real apps, use 'PreparedStatement' to prevent SQL Injection.
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO groups(name,teacher_id) VALUES('" + groupName +
-                "', " + teacherId + ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Inserted group named: " + groupName + " with teacher id " + teacherId);
-        }
+        insertGroup(conn, groupName, teacherId);
     }
 
     // Overloaded method for direct teacher ID usage
     public static void insertGroup(Connection conn, String groupName, int teacherId) throws SQLException {
-        // WARNING: In real apps, use 'PreparedStatement' to prevent SQL Injection.
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO groups(name,teacher_id) VALUES('" + groupName +
-                "', " + teacherId + ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO groups(name,teacher_id) VALUES(?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, groupName);
+            stmt.setInt(2, teacherId);
+            stmt.executeUpdate();
             System.out.println("Inserted group named: " + groupName + " with teacher id " + teacherId);
         }
     }
@@ -70,23 +66,16 @@ public class InsertIntoDatabase {
         // Retrieve group ID and student ID
         int groupId = RetrieveFromDatabase.getGroupId(conn, groupName);
         int studentId = RetrieveFromDatabase.getStudentId(conn, studentEmail);
-
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO enrollment(group_id,student_id) VALUES(" + groupId +
-                ", " + studentId + ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Enrolled student id " + studentId + " into group id " + groupId);
-        }
+        insertEnrollment(conn, groupId, studentId);
     }
 
     // Overloaded method for direct IDs
     public static void insertEnrollment(Connection conn, int groupId, int studentId) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO enrollment(group_id,student_id) VALUES(" + groupId +
-                ", " + studentId + ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO enrollment(group_id,student_id) VALUES(?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, groupId);
+            stmt.setInt(2, studentId);
+            stmt.executeUpdate();
             System.out.println("Enrolled student id " + studentId + " into group id " + groupId);
         }
     }
@@ -98,31 +87,17 @@ public class InsertIntoDatabase {
     public static int insertQuiz(Connection conn, String quizName, String description, String groupName) throws SQLException {
         // Retrieve group ID
         int groupId = RetrieveFromDatabase.getGroupId(conn, groupName);
-
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO quiz(quiz_name,description,group_id) VALUES('" + quizName +
-                "', '" + description + "', " + groupId +  ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Inserted quiz named " + quizName);
-
-            // Get the generated quiz ID
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            // If auto-generated keys not available, retrieve by name
-            return RetrieveFromDatabase.getQuizId(conn, quizName);
-        }
+        return insertQuiz(conn, quizName, description, groupId);
     }
 
     // Overloaded method for direct group ID
     public static int insertQuiz(Connection conn, String quizName, String description, int groupId) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO quiz(quiz_name,description,group_id) VALUES('" + quizName +
-                "', '" + description + "', " + groupId +  ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO quiz(quiz_name,description,group_id) VALUES(?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, quizName);
+            stmt.setString(2, description);
+            stmt.setInt(3, groupId);
+            stmt.executeUpdate();
             System.out.println("Inserted quiz named " + quizName);
 
             // Get the generated quiz ID
@@ -139,11 +114,16 @@ public class InsertIntoDatabase {
     // Triggered by: Question being created
     // Returns: The ID of the newly created question
     public static int insertMcq(Connection conn, String question, String optionA, String optionB, String optionC, String optionD, char correctOption, int assignedScore) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO mcq(question,optionA,optionB,optionC,optionD,correct_option,assigned_score) VALUES('" + question +
-                "', '" + optionA + "', '"  + optionB + "', '" + optionC + "', '" + optionD + "', '" + correctOption + "', " + assignedScore +  ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO mcq(question,optionA,optionB,optionC,optionD,correct_option,assigned_score) VALUES(?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, question);
+            stmt.setString(2, optionA);
+            stmt.setString(3, optionB);
+            stmt.setString(4, optionC);
+            stmt.setString(5, optionD);
+            stmt.setString(6, String.valueOf(correctOption));
+            stmt.setInt(7, assignedScore);
+            stmt.executeUpdate();
             System.out.println("Inserted new multiple choice question");
 
             // Get the generated question ID
@@ -161,11 +141,11 @@ public class InsertIntoDatabase {
     // Required logic: Get quiz ID and question ID to create connection
     // Note: This should be called after insertMcq() and insertQuiz() have been executed
     public static void insertQuizQuestion(Connection conn, int quizId, int questionId) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO quizQuestion(quiz_id,question_id) VALUES(" + quizId +
-                ", " + questionId + ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO quizQuestion(quiz_id,question_id) VALUES(?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            stmt.setInt(2, questionId);
+            stmt.executeUpdate();
             System.out.println("Question id " + questionId + " added to Quiz id " + quizId);
         }
     }
@@ -180,25 +160,33 @@ public class InsertIntoDatabase {
 
         // Get the next attempt number
         int attempt = RetrieveFromDatabase.getNextAttemptNumber(conn, quizId, studentId);
-
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO scores(quiz_id,student_id, attempt, score) VALUES(" + quizId +
-                ", " + studentId + ", " + attempt + ", " + score +  ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Inserted score " + score + " for attempt " + attempt + " on quiz id " + quizId + " for student id " + studentId);
-        }
+        insertScore(conn, quizId, studentId, attempt, score);
     }
 
     // Overloaded method for direct IDs and attempt number
     public static void insertScore(Connection conn, int quizId, int studentId, int attempt, int score) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO scores(quiz_id,student_id, attempt, score) VALUES(" + quizId +
-                ", " + studentId + ", " + attempt + ", " + score +  ")";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        insertScore(conn, quizId, studentId, attempt, score, LocalDateTime.now());
+    }
+
+    // Overloaded method that also records when the attempt was submitted
+    // Returns: The ID of the new attempt (scores row)
+    public static int insertScore(Connection conn, int quizId, int studentId, int attempt, int score, LocalDateTime attemptedAt) throws SQLException {
+        String sql = "INSERT INTO scores(quiz_id,student_id, attempt, score, attempted_at) VALUES(?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            stmt.setInt(2, studentId);
+            stmt.setInt(3, attempt);
+            stmt.setInt(4, score);
+            stmt.setString(5, attemptedAt.toString());
+            stmt.executeUpdate();
             System.out.println("Inserted score " + score + " for attempt " + attempt + " on quiz id " + quizId + " for student id " + studentId);
+
+            ResultSet rs = stmt.getGeneratedKeys();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
         }
+        throw new SQLException("No id generated for attempt " + attempt + " on quiz id " + quizId);
     }
 
     // When student submits an answer to a question
@@ -208,29 +196,7 @@ public class InsertIntoDatabase {
     public static void insertStudentAnswer(Connection conn, int questionId, String studentEmail, int attempt, char selectedOption) throws SQLException {
         // Retrieve student ID
         int studentId = RetrieveFromDatabase.getStudentId(conn, studentEmail);
-
-        // Get correct option for the question
-        char correctOption = RetrieveFromDatabase.getCorrectOption(conn, questionId);
-
-        // Check if answer is correct
-        boolean isCorrect = (selectedOption == correctOption);
-
-        // Get assigned score for the question
-        int assignedScore = RetrieveFromDatabase.getAssignedScore(conn, questionId);
-
-        // Calculate score: full points if correct, 0 if incorrect
-        int score = isCorrect ? assignedScore : 0;
-
-        // Get current date
-        LocalDate date = LocalDate.now();
-
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO mcqStudentAnswer(question_id,student_id, attempt, selected_option, is_correct, score, date) VALUES(" + questionId +
-                ", " + studentId + ", " + attempt + ", '" + selectedOption + "', " + isCorrect + ", " + score + ", '" + date + "')";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Student answer '" + selectedOption + "' inserted. Correct: " + isCorrect + ", Score: " + score);
-        }
+        insertStudentAnswer(conn, questionId, studentId, attempt, selectedOption);
     }
 
     // Overloaded method for direct student ID
@@ -247,26 +213,45 @@ public class InsertIntoDatabase {
         // Calculate score: full points if correct, 0 if incorrect
         int score = isCorrect ? assignedScore : 0;
 
-        // Get current date
-        LocalDate date = LocalDate.now();
-
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO mcqStudentAnswer(question_id,student_id, attempt, selected_option, is_correct, score, date) VALUES(" + questionId +
-                ", " + studentId + ", " + attempt + ", '" + selectedOption + "', " + isCorrect + ", " + score + ", '" + date + "')";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-            System.out.println("Student answer '" + selectedOption + "' inserted. Correct: " + isCorrect + ", Score: " + score);
-        }
+        insertStudentAnswer(conn, questionId, studentId, attempt, selectedOption, isCorrect, score, LocalDate.now());
     }
 
     // Original method signature kept for backward compatibility
     public static void insertStudentAnswer(Connection conn, int questionId, int studentId, int attempt, char selectedOption, boolean isCorrect, int score, LocalDate date) throws SQLException {
-        // We use simple string concatenation here for learning purposes only.
-        String sql = "INSERT INTO mcqStudentAnswer(question_id,student_id, attempt, selected_option, is_correct, score, date) VALUES(" + questionId +
-                ", " + studentId + ", " + attempt + ", '" + selectedOption + "', " + isCorrect + ", " + score + ", '" + date + "')";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "INSERT INTO mcqStudentAnswer(question_id,student_id, attempt, selected_option, is_correct, score, date) VALUES(?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, questionId);
+            stmt.setInt(2, studentId);
+            stmt.setInt(3, attempt);
+            stmt.setString(4, String.valueOf(selectedOption));
+            stmt.setBoolean(5, isCorrect);
+            stmt.setInt(6, score);
+            stmt.setString(7, date.toString());
+            stmt.executeUpdate();
             System.out.println("Student answer '" + selectedOption + "' inserted. Correct: " + isCorrect + ", Score: " + score);
         }
     }
+
+    // When a graded attempt is saved
+    // Triggered by: Student submitting quiz answers (after QuizGrader.gradeQuiz())
+    // Writes all answers in one JDBC batch, using the correctness and points the grader already computed
+    // attemptId is the id insertScore returned for the attempt's score row
+    public static void insertStudentAnswers(Connection conn, int attemptId, int studentId, int attempt, List<StudentAnswer> answers, LocalDate date) throws SQLException {
+        String sql = "INSERT INTO mcqStudentAnswer(question_id,student_id, attempt, selected_option, is_correct, score, date, attempt_id) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (StudentAnswer answer : answers) {
+                stmt.setInt(1, answer.getQuestionId());
+                stmt.setInt(2, studentId);
+                stmt.setInt(3, attempt);
+                stmt.setString(4, String.valueOf(answer.getSelectedOption()));
+                stmt.setBoolean(5, answer.isCorrect());
+                stmt.setInt(6, answer.getScoreEarned());
+                stmt.setString(7, date.toString());
+                stmt.setInt(8, attemptId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            System.out.println("Inserted " + answers.size() + " student answers for attempt " + attempt + " of student id " + studentId);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.database;
+
+import com.example.model.QuizStatistics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The quizStats table: one row per quiz with its attempt count, score sum, best and worst
+ * score and a score histogram, so quiz statistics are read from one row instead of
+ * scanning every score.
+ *
+ * Kept current by the code that writes scores: {@link #recordAttempt} in the same transaction
+ * as each new score row; deleting a quiz's scores deletes its row. {@link #rebuild}
+ * recomputes everything from scores (start the app with --rebuild-stats).
+ *
+ * Buckets are by raw score, see QuizStatistics.bucketOf.
+ */
+public final class QuizStatsTable {
+
+    private static final String COLUMNS = "quiz_id, attempt_count, score_sum, best_score, worst_score, "
+            + "bucket_0_20, bucket_21_40, bucket_41_60, bucket_61_80, bucket_81_100";
+
+    // Aggregates of scores in the same column order
+    private static final String AGGREGATE = "SELECT quiz_id, COUNT(*), SUM(score), MAX(score), MIN(score), "
+            + "SUM(score <= 20), SUM(score > 20 AND score <= 40), SUM(score > 40 AND score <= 60), "
+            + "SUM(score > 60 AND score <= 80), SUM(score > 80) FROM scores ";
+
+    // Upsert of one attempt into its quiz's row; also explained by QueryPlanCheck
+    static final String RECORD_ATTEMPT = "INSERT INTO quizStats(" + COLUMNS + ") VALUES(?, 1, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(quiz_id) DO UPDATE SET "
+            + "attempt_count = attempt_count + 1, "
+            + "score_sum = score_sum + excluded.score_sum, "
+            + "best_score = MAX(best_score, excluded.best_score), "
+            + "worst_score = MIN(worst_score, excluded.worst_score), "
+            + "bucket_0_20 = bucket_0_20 + excluded.bucket_0_20, "
+            + "bucket_21_40 = bucket_21_40 + excluded.bucket_21_40, "
+            + "bucket_41_60 = bucket_41_60 + excluded.bucket_41_60, "
+            + "bucket_61_80 = bucket_61_80 + excluded.bucket_61_80, "
+            + "bucket_81_100 = bucket_81_100 + excluded.bucket_81_100";
+
+    private QuizStatsTable() {
+    }
+
+    // Migration 6
+    public static void create(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS quizStats (\n"
+                + " quiz_id integer PRIMARY KEY,\n"
+                + " attempt_count integer NOT NULL,\n"
+                + " score_sum integer NOT NULL,\n"
+                + " best_score integer NOT NULL,\n"
+                + " worst_score integer NOT NULL,\n"
+                + " bucket_0_20 integer NOT NULL,\n"
+                + " bucket_21_40 integer NOT NULL,\n"
+                + " bucket_41_60 integer NOT NULL,\n"
+                + " bucket_61_80 integer NOT NULL,\n"
+                + " bucket_81_100 integer NOT NULL,\n"
+                + " FOREIGN KEY (quiz_id) REFERENCES quiz(id)\n"
+                + ");";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+        rebuild(conn);
+        System.out.println("Table 'quizStats' is ready.");
+    }
+
+    /**
+     * Add one new attempt to its quiz's row; call in the transaction that inserts the score.
+     */
+    public static void recordAttempt(Connection conn, int quizId, int score) throws SQLException {
+        int bucket = QuizStatistics.bucketOf(score);
+        try (PreparedStatement stmt = conn.prepareStatement(RECORD_ATTEMPT)) {
+            stmt.setInt(1, quizId);
+            stmt.setInt(2, score);
+            stmt.setInt(3, score);
+            stmt.setInt(4, score);
+            for (int i = 0; i < QuizStatistics.BUCKET_LABELS.length; i++) {
+                stmt.setInt(5 + i, i == bucket ? 1 : 0);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Recompute every row from the scores table.
+     */
+    public static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM quizStats");
+            stmt.executeUpdate("INSERT INTO quizStats(" + COLUMNS + ") " + AGGREGATE + "GROUP BY quiz_id");
+        }
+    }
+}
@@ -4,25 +4,33 @@ import com.example.model.User;
 import com.example.quizlogic.QuizAttempt;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 import static com.example.model.User.Role.*;
 
 public class RetrieveFromDatabase {
 
+    // Also explained by QueryPlanCheck
+    static final String TEACHER_ID_BY_EMAIL = "SELECT id FROM people WHERE email=? AND role='teacher'";
+    static final String NEXT_ATTEMPT_NUMBER = "SELECT MAX(attempt) as max_attempt FROM scores WHERE quiz_id=? AND student_id=?";
+    static final String SCORES = "SELECT id, attempt, score, attempted_at FROM scores WHERE quiz_id = ? AND student_id = ?";
+
     // ===== Reading data =====
     // Retrieve teacher ID by email
     public static int getTeacherId(Connection conn, String teacherEmail) throws SQLException {
-        String sql = "SELECT id FROM people WHERE email='" + teacherEmail + "' AND role='teacher'";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = TEACHER_ID_BY_EMAIL;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, teacherEmail);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("Teacher not found with email: " + teacherEmail);
@@ -30,11 +38,13 @@ public class RetrieveFromDatabase {
 
     // Retrieve group ID by group name
     public static int getGroupId(Connection conn, String groupName) throws SQLException {
-        String sql = "SELECT id FROM groups WHERE name='" + groupName + "'";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = "SELECT id FROM groups WHERE name=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, groupName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("Group not found with name: " + groupName);
@@ -42,11 +52,13 @@ public class RetrieveFromDatabase {
 
     // Retrieve student ID by email
     public static int getStudentId(Connection conn, String studentEmail) throws SQLException {
-        String sql = "SELECT id FROM people WHERE email='" + studentEmail + "' AND role='student'";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = "SELECT id FROM people WHERE email=? AND role='student'";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentEmail);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("Student not found with email: " + studentEmail);
@@ -54,11 +66,13 @@ public class RetrieveFromDatabase {
 
     // Retrieve quiz ID by quiz name
     public static int getQuizId(Connection conn, String quizName) throws SQLException {
-        String sql = "SELECT id FROM quiz WHERE quiz_name='" + quizName + "'";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = "SELECT id FROM quiz WHERE quiz_name=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, quizName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("Quiz not found with name: " + quizName);
@@ -66,11 +80,13 @@ public class RetrieveFromDatabase {
 
     // Retrieve question ID by question text (last inserted)
     public static int getQuestionIdByText(Connection conn, String questionText) throws SQLException {
-        String sql = "SELECT id FROM mcq WHERE question='" + questionText + "' ORDER BY id DESC LIMIT 1";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = "SELECT id FROM mcq WHERE question=? ORDER BY id DESC LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, questionText);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("Question not found");
@@ -78,12 +94,15 @@ public class RetrieveFromDatabase {
 
     // Get the next attempt number for a student on a specific quiz
     public static int getNextAttemptNumber(Connection conn, int quizId, int studentId) throws SQLException {
-        String sql = "SELECT MAX(attempt) as max_attempt FROM scores WHERE quiz_id=" + quizId + " AND student_id=" + studentId;
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                int maxAttempt = rs.getInt("max_attempt");
-                return maxAttempt + 1;
+        String sql = NEXT_ATTEMPT_NUMBER;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            stmt.setInt(2, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int maxAttempt = rs.getInt("max_attempt");
+                    return maxAttempt + 1;
+                }
             }
         }
         return 1; // First attempt
@@ -91,11 +110,13 @@ public class RetrieveFromDatabase {
 
     // Get correct option for a question
     public static char getCorrectOption(Connection conn, int questionId) throws SQLException {
-        String sql = "SELECT correct_option FROM mcq WHERE id=" + questionId;
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getString("correct_option").charAt(0);
+        String sql = "SELECT correct_option FROM mcq WHERE id=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, questionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("correct_option").charAt(0);
+                }
             }
         }
         throw new SQLException("Question not found with id: " + questionId);
@@ -103,11 +124,13 @@ public class RetrieveFromDatabase {
 
     // Get assigned score for a question
     public static int getAssignedScore(Connection conn, int questionId) throws SQLException {
-        String sql = "SELECT assigned_score FROM mcq WHERE id=" + questionId;
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("assigned_score");
+        String sql = "SELECT assigned_score FROM mcq WHERE id=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, questionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("assigned_score");
+                }
             }
         }
         throw new SQLException("Question not found with id: " + questionId);
@@ -115,37 +138,25 @@ public class RetrieveFromDatabase {
 
     // Get student's scores lists by QuizId
     public static Map<Integer, QuizAttempt> getScores(Connection conn, int quizId, int studentId) throws SQLException {
-        String sql = "SELECT attempt, score FROM scores WHERE quiz_id = " + quizId + " AND student_id = " + studentId;
+        String sql = SCORES;
         Map<Integer, QuizAttempt> studentScores = new HashMap<>();
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int attempt = rs.getInt("attempt");
-                int score = rs.getInt("score");
-
-                // Use attempt number as key
-                QuizAttempt qa = new QuizAttempt(quizId, studentId, attempt, score);
-                // Try to retrieve the date for this attempt from mcqStudentAnswer
-                String dateSql = "SELECT MAX(sa.date) as date FROM mcqStudentAnswer sa " +
-                                 "INNER JOIN quizQuestion qq ON sa.question_id = qq.question_id " +
-                                 "WHERE qq.quiz_id=" + quizId + " AND sa.student_id=" + studentId + " AND sa.attempt=" + attempt;
-                try (Statement stmt2 = conn.createStatement();
-                     ResultSet rs2 = stmt2.executeQuery(dateSql)) {
-                    if (rs2.next()) {
-                        String dateStr = rs2.getString("date");
-                        if (dateStr != null && !dateStr.isEmpty()) {
-                            try {
-                                LocalDate d = LocalDate.parse(dateStr);
-                                qa.setAttemptedAt(d.atStartOfDay());
-                            } catch (Exception ex) {
-                                // ignore parsing errors and keep default
-                            }
-                        }
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            stmt.setInt(2, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int attempt = rs.getInt("attempt");
+                    int score = rs.getInt("score");
+
+                    // Use attempt number as key
+                    QuizAttempt qa = new QuizAttempt(quizId, studentId, attempt, score);
+                    qa.setId(rs.getInt("id"));
+                    LocalDateTime attemptedAt = toAttemptedAt(rs.getString("attempted_at"));
+                    if (attemptedAt != null) {
+                        qa.setAttemptedAt(attemptedAt);
                     }
-                } catch (SQLException ex) {
-                    // ignore and keep default attemptedAt
+                    studentScores.put(attempt, qa);
                 }
-                studentScores.put(attempt, qa);
             }
         }
         if (studentScores.isEmpty()) {
@@ -154,14 +165,28 @@ public class RetrieveFromDatabase {
         return studentScores;
     }
 
+    // Parse scores.attempted_at; null when it is missing (attempts saved before it existed) or unreadable
+    public static LocalDateTime toAttemptedAt(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     
     // Retrieve user ID by email
     public static int getUserIdByEmail(Connection conn, String email) throws SQLException {
-        String sql = "SELECT id FROM people WHERE email='" + email + "'";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("id");
+        String sql = "SELECT id FROM people WHERE email=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, email);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         }
         throw new SQLException("User not found with email: " + email);
@@ -0,0 +1,140 @@
+package com.example.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Brings a database file up to the current schema, one numbered migration at a time.
+ *
+ * The schema version lives in SQLite's {@code PRAGMA user_version} header field (0 for a new
+ * or pre-migration file). Each pending migration runs in its own transaction together with
+ * the version bump, so a failed step leaves the file at the last good version.
+ * When the file is already current, {@link #migrate(Connection)} only reads the header.
+ *
+ * Never edit a migration that has shipped; add a new one with the next version instead.
+ */
+public class SchemaMigrator {
+
+    /**
+     * The work done by one migration. Runs inside a transaction; do not commit.
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * One numbered schema change.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        public Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final List<Migration> migrations;
+
+    /**
+     * @param migrations steps numbered 1, 2, 3, ... with no gaps
+     */
+    public SchemaMigrator(List<Migration> migrations) {
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).version != i + 1) {
+                throw new IllegalArgumentException("Migration " + (i + 1) + " is missing or out of order (found "
+                        + migrations.get(i).version + ")");
+            }
+        }
+        this.migrations = Collections.unmodifiableList(new ArrayList<>(migrations));
+    }
+
+    // Version the newest migration brings the file to
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    public List<Migration> getMigrations() {
+        return migrations;
+    }
+
+    // Read the schema version stored in the file header
+    public static int getSchemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Apply every migration newer than the file's current version.
+     * @return number of migrations applied (0 on the fast path)
+     * @throws SQLException if a migration fails; that migration is rolled back
+     */
+    public int migrate(Connection conn) throws SQLException {
+        int current = getSchemaVersion(conn);
+        int latest = getLatestVersion();
+        if (current == latest) {
+            // Fast path: nothing to do, no DDL
+            System.out.println("Database schema is up to date (version " + current + ").");
+            return 0;
+        }
+        if (current > latest) {
+            System.err.println("Warning: database schema version " + current
+                    + " is newer than this application supports (" + latest + ").");
+            return 0;
+        }
+
+        int applied = 0;
+        for (Migration migration : migrations.subList(current, latest)) {
+            if (applyMigration(conn, migration)) {
+                applied++;
+            }
+        }
+        System.out.println("Database schema migrated from version " + current + " to " + latest + ".");
+        return applied;
+    }
+
+    // Run one migration and its version bump atomically
+    private boolean applyMigration(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            // Another process may have migrated the file since we checked
+            if (getSchemaVersion(conn) >= migration.version) {
+                conn.commit();
+                return false;
+            }
+            System.out.println("Applying migration " + migration.version + ": " + migration.description);
+            migration.step.apply(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA user_version = " + migration.version);
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version + " (" + migration.description
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
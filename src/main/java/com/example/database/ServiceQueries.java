@@ -0,0 +1,176 @@
+package com.example.database;
+
+import java.util.Collections;
+
+/**
+ * SQL of the service lookups that must stay on an index. The services run these exact
+ * statements and QueryPlanCheck explains them, so the check can never drift from the code.
+ *
+ * Statements with a variable IN list are built by the methods below; the others are constants.
+ */
+public final class ServiceQueries {
+
+    private ServiceQueries() {
+    }
+
+    // ========== People ==========
+
+    public static final String USER_SELECT = "SELECT id, name, lastname, email, password, role FROM people ";
+    public static final String USER_BY_EMAIL = USER_SELECT + "WHERE email=?";
+    public static final String USERS_BY_ROLE = USER_SELECT + "WHERE role=?";
+    public static final String COUNT_USERS_BY_ROLE = "SELECT COUNT(*) as count FROM people WHERE role=?";
+    public static final String LOGIN = "SELECT id, name, lastname, role FROM people WHERE email=? AND password=?";
+
+    // ========== Groups ==========
+
+    public static final String GROUP_SELECT = "SELECT id, name, teacher_id FROM groups ";
+    public static final String GROUPS_BY_TEACHER = GROUP_SELECT + "WHERE teacher_id=?";
+    public static final String GROUP_BY_NAME = GROUP_SELECT + "WHERE name=?";
+    public static final String GROUPS_BY_STUDENT = "SELECT g.id, g.name, g.teacher_id "
+            + "FROM groups g "
+            + "INNER JOIN enrollment e ON g.id = e.group_id "
+            + "WHERE e.student_id=?";
+    public static final String STUDENTS_IN_GROUP = "SELECT p.id, p.name, p.lastname, p.email, p.password, p.role "
+            + "FROM people p "
+            + "INNER JOIN enrollment e ON p.id = e.student_id "
+            + "WHERE e.group_id=?";
+
+    // ========== Quizzes ==========
+
+    // Quiz columns plus the teacher's name, so listing quizzes needs no per-row user lookup
+    public static final String QUIZ_SELECT =
+            "SELECT q.id, q.quiz_name, q.description, q.group_id, q.max_score, g.teacher_id, "
+            + "t.name AS teacher_name, t.lastname AS teacher_lastname "
+            + "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id "
+            + "LEFT JOIN people t ON g.teacher_id = t.id ";
+    public static final String QUIZ_BY_ID = QUIZ_SELECT + "WHERE q.id=?";
+    public static final String QUIZZES_BY_TEACHER = QUIZ_SELECT + "WHERE g.teacher_id=?";
+    public static final String QUIZ_IDS_BY_TEACHER =
+            "SELECT q.id FROM quiz q INNER JOIN groups g ON q.group_id = g.id WHERE g.teacher_id=?";
+    public static final String QUIZZES_BY_GROUP = QUIZ_SELECT + "WHERE q.group_id=?";
+    public static final String QUIZ_IDS_BY_GROUP = "SELECT id FROM quiz WHERE group_id=?";
+
+    // Questions of several quizzes at once, ordered by quiz
+    private static final String QUESTION_SELECT =
+            "SELECT qq.quiz_id, m.id, m.question, m.optionA, m.optionB, m.optionC, m.optionD, m.correct_option, m.assigned_score "
+            + "FROM quizQuestion qq INNER JOIN mcq m ON m.id = qq.question_id ";
+    public static final String QUESTIONS_BY_QUIZ =
+            "SELECT m.id, m.question, m.optionA, m.optionB, m.optionC, m.optionD, m.correct_option, m.assigned_score "
+            + "FROM mcq m INNER JOIN quizQuestion qq ON m.id = qq.question_id WHERE qq.quiz_id=?";
+
+    // Quiz columns with the question count aggregated in SQL
+    private static final String SUMMARY_COLUMNS =
+            "SELECT q.id, q.quiz_name, q.description, q.group_id, q.max_score, g.teacher_id, "
+            + "t.name AS teacher_name, t.lastname AS teacher_lastname, "
+            + "COUNT(qq.question_id) AS question_count ";
+    private static final String SUMMARY_FROM =
+            "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id "
+            + "LEFT JOIN people t ON g.teacher_id = t.id "
+            + "LEFT JOIN quizQuestion qq ON qq.quiz_id = q.id ";
+    private static final String SUMMARY_SELECT = SUMMARY_COLUMNS + SUMMARY_FROM;
+    private static final String SUMMARY_GROUP_BY = " GROUP BY q.id";
+    private static final String IN_STUDENT_GROUPS = "WHERE q.group_id IN (SELECT group_id FROM enrollment WHERE student_id=?)";
+
+    public static final String QUIZ_SUMMARY_BY_ID = SUMMARY_SELECT + "WHERE q.id=?" + SUMMARY_GROUP_BY;
+    public static final String ALL_QUIZ_SUMMARIES = SUMMARY_SELECT + SUMMARY_GROUP_BY;
+    public static final String QUIZ_SUMMARIES_BY_TEACHER = SUMMARY_SELECT + "WHERE g.teacher_id=?" + SUMMARY_GROUP_BY;
+    public static final String QUIZ_SUMMARIES_BY_GROUP = SUMMARY_SELECT + "WHERE q.group_id=?" + SUMMARY_GROUP_BY;
+    public static final String ASSIGNED_QUIZ_SUMMARIES = SUMMARY_SELECT + IN_STUDENT_GROUPS + SUMMARY_GROUP_BY;
+
+    // Summary columns plus one student's attempt count and best score per quiz (both parameters: student id)
+    public static final String ASSIGNED_QUIZ_SNAPSHOTS = SUMMARY_COLUMNS
+            + ", a.attempt_count, a.best_score " + SUMMARY_FROM
+            + "LEFT JOIN (SELECT quiz_id, COUNT(*) AS attempt_count, MAX(score) AS best_score "
+            + "FROM scores WHERE student_id=? GROUP BY quiz_id) a ON a.quiz_id = q.id "
+            + IN_STUDENT_GROUPS + SUMMARY_GROUP_BY;
+
+    // Recompute quiz.max_score for every quiz the question (parameter) is linked to
+    public static final String REFRESH_MAX_SCORE =
+            "UPDATE quiz SET max_score = (SELECT COALESCE(SUM(m.assigned_score), 0) "
+            + "FROM quizQuestion qq INNER JOIN mcq m ON m.id = qq.question_id WHERE qq.quiz_id = quiz.id) "
+            + "WHERE id IN (SELECT quiz_id FROM quizQuestion WHERE question_id=?)";
+    public static final String DELETE_QUESTION_LINKS = "DELETE FROM quizQuestion WHERE question_id=?";
+    public static final String DELETE_QUIZ_ANSWERS =
+            "DELETE FROM mcqStudentAnswer WHERE attempt_id IN (SELECT id FROM scores WHERE quiz_id=?)";
+
+    /**
+     * Quizzes of any of {@code groupCount} groups (one parameter per group).
+     */
+    public static String quizzesInGroups(int groupCount) {
+        return QUIZ_SELECT + "WHERE q.group_id IN (" + placeholders(groupCount) + ")";
+    }
+
+    public static String quizIdsInGroups(int groupCount) {
+        return "SELECT id FROM quiz WHERE group_id IN (" + placeholders(groupCount) + ")";
+    }
+
+    /**
+     * Questions of the quizzes whose ids the given query selects, or of every quiz when it is null.
+     */
+    public static String questionsOfQuizzes(String quizIdsSql) {
+        return QUESTION_SELECT
+                + (quizIdsSql == null ? "" : "WHERE qq.quiz_id IN (" + quizIdsSql + ") ")
+                + "ORDER BY qq.quiz_id, qq.question_id";
+    }
+
+    // ========== Attempts ==========
+
+    // Filters on the scores table for loading attempts; see attempts() and answersOfAttempts()
+    public static final String BY_STUDENT = "student_id=?";
+    public static final String BY_QUIZ = "quiz_id=?";
+    public static final String BY_ID = "id=?";
+    public static final String BY_STUDENT_AND_QUIZ = "student_id=? AND quiz_id=?";
+
+    public static final String BEST_SCORE = "SELECT MAX(score) as best FROM scores WHERE student_id=? AND quiz_id=?";
+    public static final String ATTEMPT_COUNT = "SELECT COUNT(*) as count FROM scores WHERE student_id=? AND quiz_id=?";
+    public static final String AVERAGE_SCORE_FOR_STUDENT = "SELECT AVG(score) as average FROM scores WHERE student_id=?";
+    // Attempts submitted in [from, to); attempted_at is ISO text, so ranges compare as strings
+    public static final String ATTEMPTS_BETWEEN =
+            "SELECT COUNT(*) as count FROM scores WHERE attempted_at >= ? AND attempted_at < ?";
+    public static final String QUESTION_ACCURACY = "SELECT qq.question_id, "
+            + "SUM(CASE WHEN sa.is_correct = 1 THEN 1 ELSE 0 END) as correct_count, "
+            + "COUNT(*) as total_count "
+            + "FROM quizQuestion qq "
+            + "LEFT JOIN mcqStudentAnswer sa ON qq.question_id = sa.question_id "
+            + "WHERE qq.quiz_id=? "
+            + "GROUP BY qq.question_id";
+
+    /**
+     * Score rows matching one of the BY_ filters.
+     */
+    public static String attempts(String scoresWhere) {
+        return "SELECT id, quiz_id, student_id, attempt, score, attempted_at FROM scores WHERE " + scoresWhere;
+    }
+
+    /**
+     * Answers of every attempt matching the filter. Each attempt's answers are one range of idx_answer_attempt.
+     */
+    public static String answersOfAttempts(String scoresWhere) {
+        return "SELECT sa.attempt_id, sa.question_id, sa.selected_option, sa.is_correct, sa.score, "
+                + "sa.attempt, m.assigned_score "
+                + "FROM mcqStudentAnswer sa "
+                + "INNER JOIN mcq m ON sa.question_id = m.id "
+                + "WHERE sa.attempt_id IN (SELECT id FROM scores WHERE " + scoresWhere + ")";
+    }
+
+    /**
+     * Best score per (student, quiz): quiz ids first, then student ids.
+     */
+    public static String bestScores(int quizCount, int studentCount) {
+        return "SELECT student_id, quiz_id, MAX(score) as best FROM scores "
+                + "WHERE quiz_id IN (" + placeholders(quizCount) + ") "
+                + "AND student_id IN (" + placeholders(studentCount) + ") "
+                + "GROUP BY student_id, quiz_id";
+    }
+
+    public static String quizStatistics(int quizCount) {
+        return "SELECT quiz_id, attempt_count, score_sum, best_score, worst_score, "
+                + "bucket_0_20, bucket_21_40, bucket_41_60, bucket_61_80, bucket_81_100 "
+                + "FROM quizStats WHERE quiz_id IN (" + placeholders(quizCount) + ")";
+    }
+
+    // "?, ?, ?" for an IN list
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A piece of database work that needs a connection, e.g. a block of inserts run on the writer.
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run(Connection conn) throws SQLException;
+}
@@ -0,0 +1,231 @@
+package com.example.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared statements of one physical connection, kept open and reused by SQL text.
+ *
+ * The pool routes {@code conn.prepareStatement(sql)} here, so callers write ordinary
+ * try-with-resources code: closing a cached statement only clears its parameters and
+ * makes it available for the next caller with the same SQL. SQLite then parses and plans
+ * each query once per connection instead of once per call.
+ *
+ * The cache is bounded; the least recently used statement is closed when it is full.
+ * If the same SQL is requested again while the cached statement is still open (for example
+ * a nested call), the second caller gets a normal, uncached statement.
+ */
+public class StatementCache {
+
+    /**
+     * Hit/miss counters shared by all caches of one pool.
+     */
+    public static final class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        public long getEvictions() {
+            return evictions.get();
+        }
+
+        public double getHitRatio() {
+            long total = hits.get() + misses.get();
+            return total == 0 ? 0.0 : (double) hits.get() / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("StatementCache{hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%}",
+                    getHits(), getMisses(), getEvictions(), getHitRatio() * 100);
+        }
+    }
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Counters counters;
+    // Access-ordered, so iteration starts at the least recently used statement
+    private final LinkedHashMap<String, Entry> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    public StatementCache(Connection physical, int maxSize, Counters counters) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.counters = counters;
+    }
+
+    /**
+     * Return a prepared statement for this SQL, reusing a cached one when it is free.
+     */
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        if (maxSize <= 0) {
+            counters.misses.incrementAndGet();
+            return physical.prepareStatement(sql);
+        }
+
+        Entry entry = statements.get(sql);
+        if (entry != null) {
+            if (entry.inUse) {
+                // Already open higher up the call stack: don't share it
+                counters.misses.incrementAndGet();
+                return physical.prepareStatement(sql);
+            }
+            counters.hits.incrementAndGet();
+            entry.inUse = true;
+            return entry.newHandle();
+        }
+
+        counters.misses.incrementAndGet();
+        entry = new Entry(physical.prepareStatement(sql));
+        entry.inUse = true;
+        statements.put(sql, entry);
+        evictOverflow();
+        return entry.newHandle();
+    }
+
+    // Close least recently used statements until the cache fits again
+    private void evictOverflow() {
+        Iterator<Entry> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            counters.evictions.incrementAndGet();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                eldest.closeQuietly();
+            }
+            // A statement still in use is closed when its caller closes it
+        }
+    }
+
+    private synchronized void giveBack(Entry entry) throws SQLException {
+        entry.inUse = false;
+        // An unclosed result set keeps SQLite's read snapshot open, so close it here
+        if (entry.lastResult != null) {
+            try {
+                entry.lastResult.close();
+            } catch (SQLException ignored) {
+                // already closed
+            }
+            entry.lastResult = null;
+        }
+        if (entry.evicted) {
+            entry.closeQuietly();
+            return;
+        }
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            // Broken statement: drop it so the next caller prepares a fresh one
+            statements.values().remove(entry);
+            entry.closeQuietly();
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Close every cached statement; called before the connection itself is closed.
+     */
+    public synchronized void closeAll() {
+        for (Entry entry : statements.values()) {
+            entry.closeQuietly();
+        }
+        statements.clear();
+    }
+
+    /**
+     * One cached statement and whether a caller currently holds it.
+     */
+    private final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private ResultSet lastResult;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this));
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // connection is going away or the statement is already broken
+            }
+        }
+    }
+
+    /**
+     * What the caller sees. Closing it returns the statement to the cache.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed;
+
+        private Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet) {
+                    entry.lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Best score of every student on every quiz of a set, e.g. one group's students x its quizzes.
+ *
+ * Stored as one int array with a row per student and a column per quiz, so a 40 x 30 group is
+ * 1,200 ints instead of 1,200 boxed Optionals. Filled by AttemptService.getBestScores.
+ */
+public class BestScoreMatrix {
+
+    // Stored for a student/quiz pair that has no attempts
+    public static final int NO_ATTEMPT = -1;
+
+    private final int[] studentIds;
+    private final int[] quizIds;
+    private final Map<Integer, Integer> studentIndex = new HashMap<>();
+    private final Map<Integer, Integer> quizIndex = new HashMap<>();
+    private final int[] scores;
+
+    public BestScoreMatrix(int[] studentIds, int[] quizIds) {
+        this.studentIds = studentIds.clone();
+        this.quizIds = quizIds.clone();
+        for (int i = 0; i < this.studentIds.length; i++) {
+            studentIndex.put(this.studentIds[i], i);
+        }
+        for (int i = 0; i < this.quizIds.length; i++) {
+            quizIndex.put(this.quizIds[i], i);
+        }
+        this.scores = new int[this.studentIds.length * this.quizIds.length];
+        Arrays.fill(scores, NO_ATTEMPT);
+    }
+
+    public int[] getStudentIds() {
+        return studentIds.clone();
+    }
+
+    public int[] getQuizIds() {
+        return quizIds.clone();
+    }
+
+    // Ignored for a student or quiz outside the matrix
+    public void setBestScore(int studentId, int quizId, int score) {
+        Integer row = studentIndex.get(studentId);
+        Integer column = quizIndex.get(quizId);
+        if (row != null && column != null) {
+            scores[row * quizIds.length + column] = score;
+        }
+    }
+
+    /**
+     * @return the student's best score on the quiz, or NO_ATTEMPT
+     */
+    public int getBestScore(int studentId, int quizId) {
+        Integer row = studentIndex.get(studentId);
+        Integer column = quizIndex.get(quizId);
+        if (row == null || column == null) {
+            return NO_ATTEMPT;
+        }
+        return scores[row * quizIds.length + column];
+    }
+
+    public boolean hasAttempt(int studentId, int quizId) {
+        return getBestScore(studentId, quizId) != NO_ATTEMPT;
+    }
+
+    /**
+     * Each student's average best-attempt percentage over the quizzes they attempted, in one pass.
+     * @param maxScores maximum score of each quiz, in the order of getQuizIds(); quizzes worth 0 are skipped
+     * @return one value per student, in the order of getStudentIds(); NaN for a student with no attempts
+     */
+    public double[] averagePercentages(int[] maxScores) {
+        if (maxScores.length != quizIds.length) {
+            throw new IllegalArgumentException("Expected " + quizIds.length + " max scores, got " + maxScores.length);
+        }
+        double[] averages = new double[studentIds.length];
+        for (int row = 0; row < studentIds.length; row++) {
+            double sum = 0;
+            int counted = 0;
+            int offset = row * quizIds.length;
+            for (int column = 0; column < quizIds.length; column++) {
+                int best = scores[offset + column];
+                if (best != NO_ATTEMPT && maxScores[column] > 0) {
+                    sum += best * 100.0 / maxScores[column];
+                    counted++;
+                }
+            }
+            averages[row] = counted == 0 ? Double.NaN : sum / counted;
+        }
+        return averages;
+    }
+}
@@ -51,6 +51,10 @@ public class Group {
         this.teacherId = teacherId;
     }
 
+    public Group copy() {
+        return new Group(id, name, teacherId);
+    }
+
     @Override
     public String toString() {
         return "Group{" +
@@ -0,0 +1,420 @@
+package com.example.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of non-negative int ids stored as a compressed bitmap, laid out like a Roaring bitmap.
+ *
+ * Ids are split into chunks of 65536 by their high 16 bits. Each chunk keeps the low 16 bits
+ * either as a sorted char array (up to 4096 ids, 2 bytes each) or as a 65536-bit bitmap (8 KB),
+ * whichever is smaller, so a few hundred students take a few hundred bytes, not one bit per
+ * user id. Membership is a binary search on the chunk keys plus an array or bit lookup; union
+ * and intersection work chunk by chunk.
+ *
+ * Not thread-safe: share a bitmap between threads only if nobody changes it any more.
+ */
+public final class IntBitmap {
+
+    // Above this many ids a chunk is smaller as a bitmap than as an array
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    // Sorted high 16 bits of the ids, and the chunk holding the low bits of each
+    private int[] keys = new int[0];
+    private Chunk[] chunks = new Chunk[0];
+
+    public static IntBitmap of(int... ids) {
+        IntBitmap bitmap = new IntBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    public boolean contains(int id) {
+        int i = Arrays.binarySearch(keys, id >>> 16);
+        return i >= 0 && chunks[i].contains((char) id);
+    }
+
+    public void add(int id) {
+        int key = id >>> 16;
+        int i = Arrays.binarySearch(keys, key);
+        if (i >= 0) {
+            chunks[i] = chunks[i].add((char) id);
+        } else {
+            insertChunk(-i - 1, key, new ArrayChunk(new char[] {(char) id}, 1));
+        }
+    }
+
+    public void remove(int id) {
+        int i = Arrays.binarySearch(keys, id >>> 16);
+        if (i < 0) {
+            return;
+        }
+        Chunk chunk = chunks[i].remove((char) id);
+        if (chunk.cardinality() == 0) {
+            removeChunk(i);
+        } else {
+            chunks[i] = chunk;
+        }
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Chunk chunk : chunks) {
+            cardinality += chunk.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Ids in this bitmap, the other one, or both (a new bitmap).
+     */
+    public IntBitmap or(IntBitmap other) {
+        IntBitmap result = new IntBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], chunks[i++].copy());
+            } else if (i == keys.length || other.keys[j] < keys[i]) {
+                result.appendChunk(other.keys[j], other.chunks[j++].copy());
+            } else {
+                result.appendChunk(keys[i], chunks[i++].or(other.chunks[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids in both this bitmap and the other one (a new bitmap).
+     */
+    public IntBitmap and(IntBitmap other) {
+        IntBitmap result = new IntBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk.cardinality() > 0) {
+                    result.appendChunk(keys[i], chunk);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public IntBitmap copy() {
+        IntBitmap copy = new IntBitmap();
+        copy.keys = keys.clone();
+        copy.chunks = new Chunk[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            copy.chunks[i] = chunks[i].copy();
+        }
+        return copy;
+    }
+
+    /**
+     * Call the action for every id, in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] ids = new int[cardinality()];
+        int[] next = {0};
+        forEach(id -> ids[next[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Approximate memory held by the chunks, for the shutdown log.
+     */
+    public long sizeInBytes() {
+        long bytes = 4L * keys.length;
+        for (Chunk chunk : chunks) {
+            bytes += chunk.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IntBitmap{cardinality=" + cardinality() + ", chunks=" + keys.length + ", bytes=" + sizeInBytes() + "}";
+    }
+
+    private void insertChunk(int index, int key, Chunk chunk) {
+        int[] newKeys = new int[keys.length + 1];
+        Chunk[] newChunks = new Chunk[chunks.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(chunks, 0, newChunks, 0, index);
+        newKeys[index] = key;
+        newChunks[index] = chunk;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(chunks, index, newChunks, index + 1, chunks.length - index);
+        keys = newKeys;
+        chunks = newChunks;
+    }
+
+    // Keys arrive in ascending order while building a union or intersection
+    private void appendChunk(int key, Chunk chunk) {
+        insertChunk(keys.length, key, chunk);
+    }
+
+    private void removeChunk(int index) {
+        int[] newKeys = new int[keys.length - 1];
+        Chunk[] newChunks = new Chunk[chunks.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(chunks, 0, newChunks, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(chunks, index + 1, newChunks, index, chunks.length - index - 1);
+        keys = newKeys;
+        chunks = newChunks;
+    }
+
+    /**
+     * The low 16 bits of the ids sharing one high 16 bits. add and remove return the chunk
+     * to keep, which may be of the other kind once the size crosses MAX_ARRAY_SIZE.
+     */
+    private interface Chunk {
+        boolean contains(char low);
+
+        Chunk add(char low);
+
+        Chunk remove(char low);
+
+        int cardinality();
+
+        Chunk or(Chunk other);
+
+        Chunk and(Chunk other);
+
+        Chunk copy();
+
+        void forEach(int high, IntConsumer action);
+
+        int sizeInBytes();
+    }
+
+    // Sparse chunk: sorted low bits
+    private static final class ArrayChunk implements Chunk {
+        private char[] values;
+        private int size;
+
+        private ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == MAX_ARRAY_SIZE) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_SIZE, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                return other.or(this);
+            }
+            ArrayChunk that = (ArrayChunk) other;
+            // Merge the two sorted arrays
+            char[] merged = new char[size + that.size];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < that.size) {
+                char next;
+                if (j == that.size || (i < size && values[i] < that.values[j])) {
+                    next = values[i++];
+                } else if (i == size || that.values[j] < values[i]) {
+                    next = that.values[j++];
+                } else {
+                    next = values[i++];
+                    j++;
+                }
+                merged[count++] = next;
+            }
+            ArrayChunk result = new ArrayChunk(merged, count);
+            return count > MAX_ARRAY_SIZE ? result.toBitmap() : result;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            char[] common = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    common[count++] = values[i];
+                }
+            }
+            return new ArrayChunk(common, count);
+        }
+
+        @Override
+        public Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, size), size);
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        public int sizeInBytes() {
+            return 2 * values.length;
+        }
+
+        private BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    // Dense chunk: one bit per possible low value
+    private static final class BitmapChunk implements Chunk {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public Chunk add(char low) {
+            if (!contains(low)) {
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char low) {
+            if (contains(low)) {
+                words[low >>> 6] &= ~(1L << low);
+                cardinality--;
+            }
+            return cardinality <= MAX_ARRAY_SIZE ? toArrayChunk() : this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            BitmapChunk result = copy();
+            if (other instanceof BitmapChunk) {
+                long[] otherWords = ((BitmapChunk) other).words;
+                result.cardinality = 0;
+                for (int i = 0; i < words.length; i++) {
+                    result.words[i] |= otherWords[i];
+                    result.cardinality += Long.bitCount(result.words[i]);
+                }
+            } else {
+                other.forEach(0, id -> result.add((char) id));
+            }
+            return result;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            BitmapChunk result = new BitmapChunk();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & otherWords[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= MAX_ARRAY_SIZE ? result.toArrayChunk() : result;
+        }
+
+        @Override
+        public BitmapChunk copy() {
+            BitmapChunk copy = new BitmapChunk();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public int sizeInBytes() {
+            return 8 * words.length;
+        }
+
+        private ArrayChunk toArrayChunk() {
+            char[] values = new char[cardinality];
+            int[] count = {0};
+            forEach(0, id -> values[count[0]++] = (char) id);
+            return new ArrayChunk(values, cardinality);
+        }
+    }
+}
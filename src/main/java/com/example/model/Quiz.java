@@ -19,6 +19,7 @@ public class Quiz {
     private LocalDateTime createdAt;
     private boolean isActive;
     private List<Question> questions;
+    private int maxScore; // Sum of the questions' assigned scores, as stored on the quiz row
     
     public Quiz() {
         this.questions = new ArrayList<>();
@@ -111,9 +112,34 @@ public class Quiz {
         this.questions.add(question);
     }
     
+    // Total possible score; available without loading the questions
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(int maxScore) {
+        this.maxScore = maxScore;
+    }
+
     public int getQuestionCount() {
         return questions.size();
     }
+
+    /**
+     * Copy of this quiz and its questions, so the copy can be changed independently.
+     */
+    public Quiz copy() {
+        Quiz copy = new Quiz(id, title, description, teacherId);
+        copy.groupId = groupId;
+        copy.teacherName = teacherName;
+        copy.createdAt = createdAt;
+        copy.isActive = isActive;
+        copy.maxScore = maxScore;
+        for (Question question : questions) {
+            copy.questions.add(question.copy());
+        }
+        return copy;
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,95 @@
+package com.example.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Attempt statistics of one quiz: count, score sum, best and worst score, and the number of
+ * attempts per score range. Read from one quizStats row instead of every score.
+ */
+public class QuizStatistics {
+
+    // Score ranges of the buckets, in order
+    public static final String[] BUCKET_LABELS = {"0-20", "21-40", "41-60", "61-80", "81-100"};
+
+    private final int quizId;
+    private final int attemptCount;
+    private final long scoreSum;
+    private final int bestScore;
+    private final int worstScore;
+    private final int[] buckets;
+
+    public QuizStatistics(int quizId, int attemptCount, long scoreSum, int bestScore, int worstScore, int[] buckets) {
+        if (buckets.length != BUCKET_LABELS.length) {
+            throw new IllegalArgumentException("Expected " + BUCKET_LABELS.length + " buckets, got " + buckets.length);
+        }
+        this.quizId = quizId;
+        this.attemptCount = attemptCount;
+        this.scoreSum = scoreSum;
+        this.bestScore = bestScore;
+        this.worstScore = worstScore;
+        this.buckets = buckets.clone();
+    }
+
+    /**
+     * Statistics of a quiz nobody has attempted yet.
+     */
+    public static QuizStatistics empty(int quizId) {
+        return new QuizStatistics(quizId, 0, 0, 0, 0, new int[BUCKET_LABELS.length]);
+    }
+
+    // Index into BUCKET_LABELS for a raw score
+    public static int bucketOf(int score) {
+        if (score <= 20) return 0;
+        if (score <= 40) return 1;
+        if (score <= 60) return 2;
+        if (score <= 80) return 3;
+        return 4;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public boolean hasAttempts() {
+        return attemptCount > 0;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    // Only meaningful when hasAttempts()
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    // Only meaningful when hasAttempts()
+    public int getWorstScore() {
+        return worstScore;
+    }
+
+    // 0.0 when there are no attempts
+    public double getAverageScore() {
+        return attemptCount == 0 ? 0.0 : (double) scoreSum / attemptCount;
+    }
+
+    public int[] getBuckets() {
+        return buckets.clone();
+    }
+
+    /**
+     * Attempts per score range, keyed by BUCKET_LABELS (same as AttemptService.getScoreDistribution).
+     */
+    public Map<String, Integer> getScoreDistribution() {
+        Map<String, Integer> distribution = new HashMap<>();
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            distribution.put(BUCKET_LABELS[i], buckets[i]);
+        }
+        return distribution;
+    }
+}
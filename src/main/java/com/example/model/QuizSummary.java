@@ -0,0 +1,87 @@
+package com.example.model;
+
+/**
+ * Read-only view of a quiz for list screens: everything the dashboard tables show, without
+ * the questions. Use {@link #toQuiz()} when a screen needs a Quiz; its questions are empty
+ * and are loaded when the quiz is opened.
+ */
+public class QuizSummary {
+
+    private final int id;
+    private final String title;
+    private final String description;
+    private final int groupId;
+    private final int teacherId;
+    private final String teacherName;
+    private final int questionCount;
+    private final int maxScore;
+
+    public QuizSummary(int id, String title, String description, int groupId, int teacherId,
+                       String teacherName, int questionCount, int maxScore) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.groupId = groupId;
+        this.teacherId = teacherId;
+        this.teacherName = teacherName;
+        this.questionCount = questionCount;
+        this.maxScore = maxScore;
+    }
+
+    /**
+     * Summary of a fully loaded quiz.
+     */
+    public static QuizSummary of(Quiz quiz) {
+        return new QuizSummary(quiz.getId(), quiz.getTitle(), quiz.getDescription(), quiz.getGroupId(),
+                quiz.getTeacherId(), quiz.getTeacherName(), quiz.getQuestionCount(), quiz.getMaxScore());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public int getTeacherId() {
+        return teacherId;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    // Sum of the assigned scores of all questions
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    /**
+     * A Quiz with the same details and no questions loaded.
+     */
+    public Quiz toQuiz() {
+        Quiz quiz = new Quiz(id, title, description, teacherId);
+        quiz.setGroupId(groupId);
+        quiz.setTeacherName(teacherName);
+        quiz.setMaxScore(maxScore);
+        return quiz;
+    }
+
+    @Override
+    public String toString() {
+        return title; // Useful for ComboBox/ListView display
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.model;
+
+import java.util.Optional;
+
+/**
+ * A quiz assigned to one student together with that student's attempt count and best score,
+ * so the student dashboard can fill every column of a row without further queries.
+ * Filled by QuizService.getAssignedQuizSnapshots.
+ */
+public class StudentQuizSnapshot extends QuizSummary {
+
+    private final int attemptCount;
+    private final Integer bestScore; // null when the student has not attempted the quiz
+
+    public StudentQuizSnapshot(int id, String title, String description, int groupId, int teacherId,
+                               String teacherName, int questionCount, int maxScore,
+                               int attemptCount, Integer bestScore) {
+        super(id, title, description, groupId, teacherId, teacherName, questionCount, maxScore);
+        this.attemptCount = attemptCount;
+        this.bestScore = bestScore;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public boolean hasAttempted() {
+        return attemptCount > 0;
+    }
+
+    public Optional<Integer> getBestScore() {
+        return Optional.ofNullable(bestScore);
+    }
+
+    /**
+     * Best score as a percentage of the max score; empty if not attempted or the quiz is worth 0.
+     */
+    public Optional<Double> getBestPercentage() {
+        if (bestScore == null || getMaxScore() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(bestScore * 100.0 / getMaxScore());
+    }
+}
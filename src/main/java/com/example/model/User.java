@@ -48,6 +48,10 @@ public abstract class User {
     public static User createUser(String email, String password, String firstName, String lastName, Role role) {
         return createUser(0, email, password, firstName, lastName, role);
     }
+
+    public User copy() {
+        return createUser(id, email, password, firstName, lastName, role);
+    }
     
     // Getters and Setters
     public int getId() {
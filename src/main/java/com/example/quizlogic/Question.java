@@ -88,6 +88,10 @@ public class Question {
         this.assignedScore = assignedScore;
     }
 
+    public Question copy() {
+        return new Question(id, text, optionA, optionB, optionC, optionD, correctOption, assignedScore);
+    }
+
     /**
      * Returns the text of a specific option.
      * 
@@ -26,4 +26,13 @@ public class StudentAnswer {
     public boolean isCorrect() {
         return isCorrect;
     }
+    public int getAssignedScore() {
+        return assignedScore;
+    }
+    public int getScoreEarned() {
+        return scoreEarned;
+    }
+    public int getAttemptNumber() {
+        return attemptNumber;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.example.service;
+
+import com.example.model.BestScoreMatrix;
+import com.example.model.QuizStatistics;
+import com.example.quizlogic.QuizAttempt;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link AttemptService}: every method runs the synchronous call on
+ * {@link ServiceExecutors} and returns a future, so controllers can start several
+ * independent queries at once without blocking the JavaFX Application Thread.
+ *
+ * Results arrive on a background thread; use {@code Platform.runLater} before touching the UI.
+ * Get it from {@link ServiceLocator#getAsyncAttemptService()}.
+ */
+@FunctionalInterface
+public interface AsyncAttemptService {
+
+    /**
+     * The synchronous service the calls are delegated to.
+     */
+    AttemptService sync();
+
+    default CompletableFuture<QuizAttempt> saveAttempt(QuizAttempt attempt) {
+        return ServiceExecutors.supplyAsync(() -> sync().saveAttempt(attempt));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> saveAttempts(List<QuizAttempt> attempts) {
+        return ServiceExecutors.supplyAsync(() -> sync().saveAttempts(attempts));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getAttemptsByStudent(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptsByStudent(studentId));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getAttemptsByQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptsByQuiz(quizId));
+    }
+
+    default CompletableFuture<Optional<QuizAttempt>> getAttemptById(int attemptId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptById(attemptId));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getStudentAttemptsForQuiz(int studentId, int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentAttemptsForQuiz(studentId, quizId));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getAttemptSummariesByStudent(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptSummariesByStudent(studentId));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getAttemptSummariesByQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptSummariesByQuiz(quizId));
+    }
+
+    default CompletableFuture<List<QuizAttempt>> getStudentAttemptSummariesForQuiz(int studentId, int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentAttemptSummariesForQuiz(studentId, quizId));
+    }
+
+    default CompletableFuture<Boolean> hasStudentAttemptedQuiz(int studentId, int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().hasStudentAttemptedQuiz(studentId, quizId));
+    }
+
+    default CompletableFuture<Optional<Integer>> getBestScore(int studentId, int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getBestScore(studentId, quizId));
+    }
+
+    default CompletableFuture<BestScoreMatrix> getBestScores(int[] studentIds, int[] quizIds) {
+        return ServiceExecutors.supplyAsync(() -> sync().getBestScores(studentIds, quizIds));
+    }
+
+    default CompletableFuture<QuizStatistics> getQuizStatistics(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizStatistics(quizId));
+    }
+
+    default CompletableFuture<Map<Integer, QuizStatistics>> getQuizStatistics(int[] quizIds) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizStatistics(quizIds));
+    }
+
+    default CompletableFuture<Double> getAverageScoreForQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAverageScoreForQuiz(quizId));
+    }
+
+    default CompletableFuture<Double> getAverageScoreForStudent(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAverageScoreForStudent(studentId));
+    }
+
+    default CompletableFuture<Integer> getTotalAttemptCount() {
+        return ServiceExecutors.supplyAsync(() -> sync().getTotalAttemptCount());
+    }
+
+    default CompletableFuture<Integer> getAttemptsToday() {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptsToday());
+    }
+
+    default CompletableFuture<Map<Integer, Double>> getQuestionAccuracyForQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuestionAccuracyForQuiz(quizId));
+    }
+
+    default CompletableFuture<Map<String, Integer>> getScoreDistribution(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getScoreDistribution(quizId));
+    }
+
+    default CompletableFuture<Integer> getAttemptCount(int studentId, int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAttemptCount(studentId, quizId));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service;
+
+import com.example.model.Group;
+import com.example.model.IntBitmap;
+import com.example.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link GroupService}: every method runs the synchronous call on
+ * {@link ServiceExecutors} and returns a future, so controllers can start several
+ * independent queries at once without blocking the JavaFX Application Thread.
+ *
+ * Results arrive on a background thread; use {@code Platform.runLater} before touching the UI.
+ * Get it from {@link ServiceLocator#getAsyncGroupService()}.
+ */
+@FunctionalInterface
+public interface AsyncGroupService {
+
+    /**
+     * The synchronous service the calls are delegated to.
+     */
+    GroupService sync();
+
+    default CompletableFuture<List<Group>> getAllGroups() {
+        return ServiceExecutors.supplyAsync(() -> sync().getAllGroups());
+    }
+
+    default CompletableFuture<List<Group>> getGroupsByTeacher(int teacherId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getGroupsByTeacher(teacherId));
+    }
+
+    default CompletableFuture<Optional<Group>> getGroupById(int id) {
+        return ServiceExecutors.supplyAsync(() -> sync().getGroupById(id));
+    }
+
+    default CompletableFuture<Optional<Group>> getGroupByName(String name) {
+        return ServiceExecutors.supplyAsync(() -> sync().getGroupByName(name));
+    }
+
+    default CompletableFuture<Group> createGroup(Group group) {
+        return ServiceExecutors.supplyAsync(() -> sync().createGroup(group));
+    }
+
+    default CompletableFuture<Boolean> updateGroup(Group group) {
+        return ServiceExecutors.supplyAsync(() -> sync().updateGroup(group));
+    }
+
+    default CompletableFuture<Boolean> deleteGroup(int id) {
+        return ServiceExecutors.supplyAsync(() -> sync().deleteGroup(id));
+    }
+
+    default CompletableFuture<List<User>> getStudentsInGroup(int groupId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentsInGroup(groupId));
+    }
+
+    default CompletableFuture<Boolean> enrollStudent(int groupId, int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().enrollStudent(groupId, studentId));
+    }
+
+    default CompletableFuture<Boolean> removeStudent(int groupId, int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().removeStudent(groupId, studentId));
+    }
+
+    default CompletableFuture<List<Group>> getGroupsByStudent(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getGroupsByStudent(studentId));
+    }
+
+    default CompletableFuture<Boolean> isStudentEnrolled(int groupId, int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().isStudentEnrolled(groupId, studentId));
+    }
+
+    default CompletableFuture<IntBitmap> getStudentIdsInAnyGroup(int... groupIds) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentIdsInAnyGroup(groupIds));
+    }
+
+    default CompletableFuture<IntBitmap> getStudentIdsInAllGroups(int... groupIds) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentIdsInAllGroups(groupIds));
+    }
+
+    default CompletableFuture<Boolean> reassignGroups(int fromTeacherId, int toTeacherId) {
+        return ServiceExecutors.supplyAsync(() -> sync().reassignGroups(fromTeacherId, toTeacherId));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.service;
+
+import com.example.model.Quiz;
+import com.example.model.QuizSummary;
+import com.example.model.StudentQuizSnapshot;
+import com.example.model.User;
+import com.example.quizlogic.Question;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link QuizService}: every method runs the synchronous call on
+ * {@link ServiceExecutors} and returns a future, so controllers can start several
+ * independent queries at once without blocking the JavaFX Application Thread.
+ *
+ * Results arrive on a background thread; use {@code Platform.runLater} before touching the UI.
+ * Get it from {@link ServiceLocator#getAsyncQuizService()}.
+ */
+@FunctionalInterface
+public interface AsyncQuizService {
+
+    /**
+     * The synchronous service the calls are delegated to.
+     */
+    QuizService sync();
+
+    default CompletableFuture<Quiz> createQuiz(Quiz quiz) {
+        return ServiceExecutors.supplyAsync(() -> sync().createQuiz(quiz));
+    }
+
+    default CompletableFuture<Boolean> updateQuiz(Quiz quiz) {
+        return ServiceExecutors.supplyAsync(() -> sync().updateQuiz(quiz));
+    }
+
+    default CompletableFuture<Boolean> deleteQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().deleteQuiz(quizId));
+    }
+
+    default CompletableFuture<Optional<Quiz>> getQuizById(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizById(quizId));
+    }
+
+    default CompletableFuture<List<Quiz>> getAllQuizzes() {
+        return ServiceExecutors.supplyAsync(() -> sync().getAllQuizzes());
+    }
+
+    default CompletableFuture<List<Quiz>> getQuizzesByTeacher(int teacherId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizzesByTeacher(teacherId));
+    }
+
+    default CompletableFuture<List<Quiz>> getQuizzesByGroup(int groupId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizzesByGroup(groupId));
+    }
+
+    default CompletableFuture<List<Quiz>> searchQuizzes(String query) {
+        return ServiceExecutors.supplyAsync(() -> sync().searchQuizzes(query));
+    }
+
+    default CompletableFuture<Question> addQuestion(int quizId, Question question) {
+        return ServiceExecutors.supplyAsync(() -> sync().addQuestion(quizId, question));
+    }
+
+    default CompletableFuture<Boolean> updateQuestion(Question question) {
+        return ServiceExecutors.supplyAsync(() -> sync().updateQuestion(question));
+    }
+
+    default CompletableFuture<Boolean> deleteQuestion(int questionId) {
+        return ServiceExecutors.supplyAsync(() -> sync().deleteQuestion(questionId));
+    }
+
+    default CompletableFuture<List<Question>> getQuestionsByQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuestionsByQuiz(quizId));
+    }
+
+    default CompletableFuture<Boolean> addQuestionToQuiz(int quizId, String question, String optionA, String optionB,
+                             String optionC, String optionD, char correctOption, int score) {
+        return ServiceExecutors.supplyAsync(() -> sync().addQuestionToQuiz(quizId, question, optionA, optionB, optionC, optionD, correctOption, score));
+    }
+
+    default CompletableFuture<Boolean> assignQuizToStudent(int quizId, int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().assignQuizToStudent(quizId, studentId));
+    }
+
+    default CompletableFuture<Boolean> assignQuizToStudents(int quizId, List<Integer> studentIds) {
+        return ServiceExecutors.supplyAsync(() -> sync().assignQuizToStudents(quizId, studentIds));
+    }
+
+    default CompletableFuture<List<Quiz>> getAssignedQuizzes(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAssignedQuizzes(studentId));
+    }
+
+    default CompletableFuture<List<User>> getStudentsAssignedToQuiz(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getStudentsAssignedToQuiz(quizId));
+    }
+
+    default CompletableFuture<Boolean> isQuizAssigned(int quizId, int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().isQuizAssigned(quizId, studentId));
+    }
+
+    default CompletableFuture<Optional<QuizSummary>> getQuizSummaryById(int quizId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizSummaryById(quizId));
+    }
+
+    default CompletableFuture<List<QuizSummary>> getAllQuizSummaries() {
+        return ServiceExecutors.supplyAsync(() -> sync().getAllQuizSummaries());
+    }
+
+    default CompletableFuture<List<QuizSummary>> getQuizSummariesByTeacher(int teacherId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizSummariesByTeacher(teacherId));
+    }
+
+    default CompletableFuture<List<QuizSummary>> getQuizSummariesByGroup(int groupId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getQuizSummariesByGroup(groupId));
+    }
+
+    default CompletableFuture<List<QuizSummary>> getAssignedQuizSummaries(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAssignedQuizSummaries(studentId));
+    }
+
+    default CompletableFuture<List<StudentQuizSnapshot>> getAssignedQuizSnapshots(int studentId) {
+        return ServiceExecutors.supplyAsync(() -> sync().getAssignedQuizSnapshots(studentId));
+    }
+
+    default CompletableFuture<Integer> getTotalQuizCount() {
+        return ServiceExecutors.supplyAsync(() -> sync().getTotalQuizCount());
+    }
+
+    default CompletableFuture<Integer> getActiveQuizCount() {
+        return ServiceExecutors.supplyAsync(() -> sync().getActiveQuizCount());
+    }
+}
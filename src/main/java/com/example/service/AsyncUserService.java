@@ -0,0 +1,64 @@
+package com.example.service;
+
+import com.example.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link UserService}: every method runs the synchronous call on
+ * {@link ServiceExecutors} and returns a future, so controllers can start several
+ * independent queries at once without blocking the JavaFX Application Thread.
+ *
+ * Results arrive on a background thread; use {@code Platform.runLater} before touching the UI.
+ * Get it from {@link ServiceLocator#getAsyncUserService()}.
+ */
+@FunctionalInterface
+public interface AsyncUserService {
+
+    /**
+     * The synchronous service the calls are delegated to.
+     */
+    UserService sync();
+
+    default CompletableFuture<List<User>> getAllUsers() {
+        return ServiceExecutors.supplyAsync(() -> sync().getAllUsers());
+    }
+
+    default CompletableFuture<List<User>> getUsersByRole(User.Role role) {
+        return ServiceExecutors.supplyAsync(() -> sync().getUsersByRole(role));
+    }
+
+    default CompletableFuture<Optional<User>> getUserById(int id) {
+        return ServiceExecutors.supplyAsync(() -> sync().getUserById(id));
+    }
+
+    default CompletableFuture<Optional<User>> getUserByEmail(String email) {
+        return ServiceExecutors.supplyAsync(() -> sync().getUserByEmail(email));
+    }
+
+    default CompletableFuture<List<User>> searchUsers(String query) {
+        return ServiceExecutors.supplyAsync(() -> sync().searchUsers(query));
+    }
+
+    default CompletableFuture<User> createUser(User user) {
+        return ServiceExecutors.supplyAsync(() -> sync().createUser(user));
+    }
+
+    default CompletableFuture<Boolean> updateUser(User user) {
+        return ServiceExecutors.supplyAsync(() -> sync().updateUser(user));
+    }
+
+    default CompletableFuture<Boolean> deleteUser(int id) {
+        return ServiceExecutors.supplyAsync(() -> sync().deleteUser(id));
+    }
+
+    default CompletableFuture<Integer> countUsersByRole(User.Role role) {
+        return ServiceExecutors.supplyAsync(() -> sync().countUsersByRole(role));
+    }
+
+    default CompletableFuture<Integer> getTotalUserCount() {
+        return ServiceExecutors.supplyAsync(() -> sync().getTotalUserCount());
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.service;
 
+import com.example.model.BestScoreMatrix;
+import com.example.model.QuizStatistics;
 import com.example.quizlogic.QuizAttempt;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -17,6 +21,18 @@ public interface AttemptService {
      * @return the saved attempt with assigned ID
      */
     QuizAttempt saveAttempt(QuizAttempt attempt);
+
+    /**
+     * Save several completed attempts, in one transaction where the implementation supports it.
+     * @return the saved attempts
+     */
+    default List<QuizAttempt> saveAttempts(List<QuizAttempt> attempts) {
+        List<QuizAttempt> saved = new ArrayList<>(attempts.size());
+        for (QuizAttempt attempt : attempts) {
+            saved.add(saveAttempt(attempt));
+        }
+        return saved;
+    }
     
     /**
      * Get all attempts by a student.
@@ -38,6 +54,30 @@ public interface AttemptService {
      */
     List<QuizAttempt> getStudentAttemptsForQuiz(int studentId, int quizId);
     
+    // ========== Summaries (no answers) ==========
+    // Most screens only need scores and counts; these skip loading the answer rows.
+
+    /**
+     * Get all attempts by a student, without their answers.
+     */
+    default List<QuizAttempt> getAttemptSummariesByStudent(int studentId) {
+        return getAttemptsByStudent(studentId);
+    }
+
+    /**
+     * Get all attempts for a quiz, without their answers.
+     */
+    default List<QuizAttempt> getAttemptSummariesByQuiz(int quizId) {
+        return getAttemptsByQuiz(quizId);
+    }
+
+    /**
+     * Get attempts by student for a specific quiz, without their answers.
+     */
+    default List<QuizAttempt> getStudentAttemptSummariesForQuiz(int studentId, int quizId) {
+        return getStudentAttemptsForQuiz(studentId, quizId);
+    }
+
     /**
      * Check if student has attempted a quiz.
      */
@@ -48,19 +88,65 @@ public interface AttemptService {
      * CHANGED: Now returns Integer score instead of Double percentage.
      */
     default Optional<Integer> getBestScore(int studentId, int quizId) {
-        return getStudentAttemptsForQuiz(studentId, quizId)
+        return getStudentAttemptSummariesForQuiz(studentId, quizId)
                 .stream()
                 .map(QuizAttempt::getTotalScore)      // use integer score
                 .max(Integer::compareTo);
     }
 
+    /**
+     * Best score of each of the students on each of the quizzes, e.g. for a group's average column.
+     */
+    default BestScoreMatrix getBestScores(int[] studentIds, int[] quizIds) {
+        BestScoreMatrix matrix = new BestScoreMatrix(studentIds, quizIds);
+        for (int studentId : studentIds) {
+            for (int quizId : quizIds) {
+                getBestScore(studentId, quizId).ifPresent(best -> matrix.setBestScore(studentId, quizId, best));
+            }
+        }
+        return matrix;
+    }
+
     // ========== Analytics ==========
 
+    /**
+     * Count, sum, best, worst and score histogram of a quiz's attempts.
+     */
+    default QuizStatistics getQuizStatistics(int quizId) {
+        List<QuizAttempt> attempts = getAttemptSummariesByQuiz(quizId);
+        if (attempts.isEmpty()) {
+            return QuizStatistics.empty(quizId);
+        }
+        long sum = 0;
+        int best = Integer.MIN_VALUE;
+        int worst = Integer.MAX_VALUE;
+        int[] buckets = new int[QuizStatistics.BUCKET_LABELS.length];
+        for (QuizAttempt attempt : attempts) {
+            int score = attempt.getTotalScore();
+            sum += score;
+            best = Math.max(best, score);
+            worst = Math.min(worst, score);
+            buckets[QuizStatistics.bucketOf(score)]++;
+        }
+        return new QuizStatistics(quizId, attempts.size(), sum, best, worst, buckets);
+    }
+
+    /**
+     * Statistics of several quizzes, keyed by quiz id; every requested quiz is present.
+     */
+    default Map<Integer, QuizStatistics> getQuizStatistics(int[] quizIds) {
+        Map<Integer, QuizStatistics> statistics = new HashMap<>();
+        for (int quizId : quizIds) {
+            statistics.put(quizId, getQuizStatistics(quizId));
+        }
+        return statistics;
+    }
+
     /**
      * Get average score for a quiz.
      */
     default double getAverageScoreForQuiz(int quizId) {                   
-        return getAttemptsByQuiz(quizId).stream()
+        return getAttemptSummariesByQuiz(quizId).stream()
                 .mapToInt(QuizAttempt::getTotalScore)
                 .average()
                 .orElse(0.0);
@@ -70,7 +156,7 @@ public interface AttemptService {
      * Get average score for a student across all quizzes.
      */
     default double getAverageScoreForStudent(int studentId) {             
-        return getAttemptsByStudent(studentId).stream()
+        return getAttemptSummariesByStudent(studentId).stream()
                 .mapToInt(QuizAttempt::getTotalScore)
                 .average()
                 .orElse(0.0);
@@ -107,6 +193,6 @@ public interface AttemptService {
      * Count how many attempts a student has made on a quiz.
      */
     default int getAttemptCount(int studentId, int quizId) {          
-        return getStudentAttemptsForQuiz(studentId, quizId).size();
+        return getStudentAttemptSummariesForQuiz(studentId, quizId).size();
     }
 }
@@ -0,0 +1,277 @@
+package com.example.service;
+
+import com.example.quizlogic.QuizAttempt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind queue for quiz submissions with group commit.
+ *
+ * When a whole class presses Submit at once, saving each attempt on its own means one
+ * commit (and one fsync) per student. Instead, {@link #submit(QuizAttempt)} queues the
+ * attempt and a background thread saves everything that arrived within a short window
+ * in one transaction.
+ *
+ * A flush starts as soon as the first attempt arrives and closes when either
+ * {@code maxBatchSize} attempts are collected or {@code maxDelayMillis} has passed.
+ * Each caller's future completes only after the transaction holding its attempt has
+ * committed, so a completed future means the attempt is on disk. If a batch fails, its
+ * attempts are retried one by one so a single bad attempt only fails its own future.
+ *
+ * The queue is bounded: when it is full, {@code submit} fails the future at once rather than
+ * wait for space, since it is called from the JavaFX thread. Submissions and shutdown take
+ * the queue's lock, so an attempt is either queued ahead of the shutdown marker (and saved)
+ * or rejected, never left behind in a queue nobody drains.
+ */
+public class AttemptSubmissionQueue {
+
+    /**
+     * Saves a batch of attempts atomically; throws if nothing was saved.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<QuizAttempt> batch) throws Exception;
+    }
+
+    private static final QueuedAttempt POISON = new QueuedAttempt(null);
+
+    private final BatchWriter writer;
+    private final BlockingQueue<QueuedAttempt> queue;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final Thread flusher;
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedAttempts = new AtomicLong();
+    private final AtomicLong maxBatch = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    public AttemptSubmissionQueue(BatchWriter writer, int capacity, int maxBatchSize,
+                                  long maxDelayMillis) {
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be at least 1");
+        }
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.flusher = new Thread(this::runFlusher, "attempt-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queue a graded attempt for saving. Never blocks.
+     * @return completes with the attempt once it is committed, or exceptionally if it could not be saved
+     */
+    public CompletableFuture<QuizAttempt> submit(QuizAttempt attempt) {
+        QueuedAttempt queued = new QueuedAttempt(attempt);
+        String rejection;
+        synchronized (this) {
+            if (shutdown) {
+                rejection = "Submission queue is shut down";
+            } else if (!queue.offer(queued)) {
+                // Backpressure: fail at once rather than grow without bound or block the caller
+                rejection = "Submission queue is full (" + queue.size() + " waiting)";
+            } else {
+                rejection = null;
+            }
+        }
+        if (rejection != null) {
+            rejected.incrementAndGet();
+            queued.future.completeExceptionally(new RejectedExecutionException(rejection));
+            return queued.future;
+        }
+        submitted.incrementAndGet();
+        return queued.future;
+    }
+
+    private void runFlusher() {
+        List<QueuedAttempt> batch = new ArrayList<>(maxBatchSize);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                // Wait for the first attempt of the next batch
+                QueuedAttempt first = queue.take();
+                if (first == POISON) {
+                    stop = true;
+                } else {
+                    batch.add(first);
+                    // Collect more until the batch is full or the window closes
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                    while (batch.size() < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        QueuedAttempt next = remaining > 0
+                                ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                                : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (next == POISON) {
+                            stop = true;
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                stop = true;
+            }
+
+            if (stop) {
+                // Save whatever is still waiting before exiting
+                for (QueuedAttempt left; (left = queue.poll()) != null; ) {
+                    if (left != POISON) {
+                        batch.add(left);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<QueuedAttempt> batch) {
+        long start = System.nanoTime();
+        List<QuizAttempt> attempts = new ArrayList<>(batch.size());
+        for (QueuedAttempt queued : batch) {
+            attempts.add(queued.attempt);
+        }
+
+        try {
+            writer.write(attempts);
+            recordFlush(batch.size(), System.nanoTime() - start);
+            for (QueuedAttempt queued : batch) {
+                complete(queued);
+            }
+        } catch (Exception batchError) {
+            System.err.println("Error saving " + batch.size() + " attempts together, retrying one by one: "
+                    + batchError.getMessage());
+            // Isolate the failing attempt(s); the others still get saved
+            for (QueuedAttempt queued : batch) {
+                long single = System.nanoTime();
+                try {
+                    writer.write(List.of(queued.attempt));
+                    recordFlush(1, System.nanoTime() - single);
+                    complete(queued);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    queued.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void complete(QueuedAttempt queued) {
+        totalLatencyNanos.addAndGet(System.nanoTime() - queued.enqueuedAt);
+        queued.future.complete(queued.attempt);
+    }
+
+    private void recordFlush(int size, long nanos) {
+        flushes.incrementAndGet();
+        flushedAttempts.addAndGet(size);
+        maxBatch.accumulateAndGet(size, Math::max);
+        totalFlushNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Stop accepting submissions, save everything already queued and wait for the flusher.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            // From here on submit rejects, so nothing can be queued behind the marker
+            shutdown = true;
+        }
+        try {
+            queue.put(POISON);
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== Metrics ==========
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    public long getFlushedAttemptCount() {
+        return flushedAttempts.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatch.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = flushes.get();
+        return count == 0 ? 0.0 : (double) flushedAttempts.get() / count;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushes.get();
+        return count == 0 ? 0.0 : totalFlushNanos.get() / 1_000_000.0 / count;
+    }
+
+    // Submit-to-commit time per attempt
+    public double getAverageLatencyMillis() {
+        long count = flushedAttempts.get();
+        return count == 0 ? 0.0 : totalLatencyNanos.get() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AttemptSubmissionQueue{depth=%d, submitted=%d, flushes=%d, avgBatch=%.1f, maxBatch=%d, "
+                        + "avgFlush=%.2fms, avgLatency=%.2fms, rejected=%d, failed=%d}",
+                getQueueDepth(), getSubmittedCount(), getFlushCount(), getAverageBatchSize(), getMaxBatchSize(),
+                getAverageFlushMillis(), getAverageLatencyMillis(), getRejectedCount(), getFailedCount());
+    }
+
+    /**
+     * One submitted attempt and the future its caller is waiting on.
+     */
+    private static final class QueuedAttempt {
+        private final QuizAttempt attempt;
+        private final CompletableFuture<QuizAttempt> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private QueuedAttempt(QuizAttempt attempt) {
+            this.attempt = attempt;
+        }
+    }
+}
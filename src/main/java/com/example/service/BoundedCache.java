@@ -0,0 +1,124 @@
+package com.example.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Small thread-safe LRU cache used by the services to avoid re-reading rows that rarely change.
+ *
+ * Holds at most {@code maxSize} entries; the least recently used one is dropped when full.
+ * Keeps hit/miss/eviction counters so the benefit can be checked in the shutdown log.
+ * Values are stored as given: callers that hand out mutable objects should store and return copies.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Counters
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public BoundedCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cached value, or null on a miss
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        entries.put(key, value);
+        Iterator<V> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    // Remove every entry whose value matches, e.g. all keys that point at one row
+    public synchronized void invalidateIf(Predicate<V> matches) {
+        Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (matches.test(it.next().getValue())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    // Remove every entry whose key matches, e.g. all (student, quiz) pairs of one quiz
+    public synchronized void invalidateKeysIf(Predicate<K> matches) {
+        Iterator<K> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (matches.test(it.next())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    // ========== Statistics ==========
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s{size=%d/%d, hits=%d, misses=%d, evictions=%d, invalidations=%d, hitRatio=%.1f%%}",
+                name, entries.size(), maxSize, hits, misses, evictions, invalidations, getHitRatio() * 100);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.service;
+
+import com.example.model.BestScoreMatrix;
+import com.example.model.QuizStatistics;
+import com.example.quizlogic.QuizAttempt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AttemptService decorator that caches the per-student and per-quiz aggregates (best score,
+ * attempt count, averages, statistics, distributions). Attempt lists are not cached: they hold
+ * mutable attempts and are read once per screen. A saved attempt drops only its student's and
+ * its quiz's entries (see ServiceCaches), whether saved here or through the AttemptSubmissionQueue.
+ */
+public class CachingAttemptService implements AttemptService {
+
+    private final AttemptService delegate;
+    private final ServiceCaches caches;
+
+    private final BoundedCache<List<Integer>, Optional<Integer>> bestScores;
+    private final BoundedCache<List<Integer>, Integer> attemptCounts;
+    private final BoundedCache<List<Integer>, Boolean> attempted;
+    private final BoundedCache<Integer, QuizStatistics> quizStatistics;
+    private final BoundedCache<String, Double> averages;
+    private final BoundedCache<Integer, Map<String, Integer>> distributions;
+    private final BoundedCache<Integer, Map<Integer, Double>> questionAccuracy;
+    private final BoundedCache<String, Integer> counts;
+
+    public CachingAttemptService(AttemptService delegate, ServiceCaches caches, int cacheSize) {
+        this.delegate = delegate;
+        this.caches = caches;
+        bestScores = caches.newCache("AttemptService.getBestScore", cacheSize);
+        attemptCounts = caches.newCache("AttemptService.getAttemptCount", cacheSize);
+        attempted = caches.newCache("AttemptService.hasStudentAttemptedQuiz", cacheSize);
+        quizStatistics = caches.newCache("AttemptService.getQuizStatistics", cacheSize);
+        averages = caches.newCache("AttemptService.averages", cacheSize);
+        distributions = caches.newCache("AttemptService.getScoreDistribution", cacheSize);
+        questionAccuracy = caches.newCache("AttemptService.getQuestionAccuracyForQuiz", cacheSize);
+        counts = caches.newCache("AttemptService.counts", cacheSize);
+
+        caches.onEvent(DomainEvent.AttemptSaved.class, e -> attemptSaved(e.getStudentId(), e.getQuizId()));
+        caches.onEvent(DomainEvent.QuizChanged.class, e -> {
+            if (e.getChange() == DomainEvent.Change.DELETED) {
+                quizDeleted(e.getQuizId());
+            }
+        });
+        caches.onEvent(DomainEvent.QuestionChanged.class, e -> {
+            for (int quizId : e.getQuizIds()) {
+                questionAccuracy.invalidate(quizId);
+            }
+        });
+        // Deleting a group or a user deletes attempts of quizzes and students the event does not name
+        caches.onEvent(DomainEvent.GroupChanged.class, e -> {
+            if (e.getChange() == DomainEvent.Change.DELETED) {
+                invalidateAll();
+            }
+        });
+        caches.onEvent(DomainEvent.UserChanged.class, e -> {
+            if (e.getChange() == DomainEvent.Change.DELETED) {
+                invalidateAll();
+            }
+        });
+    }
+
+    // ========== Writes ==========
+
+    @Override
+    public QuizAttempt saveAttempt(QuizAttempt attempt) {
+        try {
+            return delegate.saveAttempt(attempt);
+        } finally {
+            caches.changed(new DomainEvent.AttemptSaved(attempt.getId(), attempt.getQuizId(), attempt.getStudentId()));
+        }
+    }
+
+    @Override
+    public List<QuizAttempt> saveAttempts(List<QuizAttempt> attempts) {
+        try {
+            return delegate.saveAttempts(attempts);
+        } finally {
+            for (QuizAttempt attempt : attempts) {
+                caches.changed(new DomainEvent.AttemptSaved(attempt.getId(), attempt.getQuizId(),
+                        attempt.getStudentId()));
+            }
+        }
+    }
+
+    // ========== Invalidation ==========
+
+    private void attemptSaved(int studentId, int quizId) {
+        List<Integer> key = List.of(studentId, quizId);
+        bestScores.invalidate(key);
+        attemptCounts.invalidate(key);
+        attempted.invalidate(key);
+        quizChanged(quizId);
+        averages.invalidate("student:" + studentId);
+        counts.invalidateAll();
+    }
+
+    // The quiz's attempts were deleted with it; so were some of every student's scores
+    private void quizDeleted(int quizId) {
+        bestScores.invalidateKeysIf(key -> key.get(1) == quizId);
+        attemptCounts.invalidateKeysIf(key -> key.get(1) == quizId);
+        attempted.invalidateKeysIf(key -> key.get(1) == quizId);
+        quizChanged(quizId);
+        averages.invalidateKeysIf(key -> key.startsWith("student:"));
+        counts.invalidateAll();
+    }
+
+    private void quizChanged(int quizId) {
+        quizStatistics.invalidate(quizId);
+        averages.invalidate("quiz:" + quizId);
+        distributions.invalidate(quizId);
+        questionAccuracy.invalidate(quizId);
+    }
+
+    private void invalidateAll() {
+        bestScores.invalidateAll();
+        attemptCounts.invalidateAll();
+        attempted.invalidateAll();
+        quizStatistics.invalidateAll();
+        averages.invalidateAll();
+        distributions.invalidateAll();
+        questionAccuracy.invalidateAll();
+        counts.invalidateAll();
+    }
+
+    // ========== Cached reads ==========
+
+    @Override
+    public Optional<Integer> getBestScore(int studentId, int quizId) {
+        return caches.get(bestScores, List.of(studentId, quizId), () -> delegate.getBestScore(studentId, quizId));
+    }
+
+    @Override
+    public int getAttemptCount(int studentId, int quizId) {
+        return caches.get(attemptCounts, List.of(studentId, quizId), () -> delegate.getAttemptCount(studentId, quizId));
+    }
+
+    @Override
+    public boolean hasStudentAttemptedQuiz(int studentId, int quizId) {
+        return caches.get(attempted, List.of(studentId, quizId),
+                () -> delegate.hasStudentAttemptedQuiz(studentId, quizId));
+    }
+
+    @Override
+    public QuizStatistics getQuizStatistics(int quizId) {
+        return caches.get(quizStatistics, quizId, () -> delegate.getQuizStatistics(quizId));
+    }
+
+    @Override
+    public double getAverageScoreForQuiz(int quizId) {
+        return caches.get(averages, "quiz:" + quizId, () -> delegate.getAverageScoreForQuiz(quizId));
+    }
+
+    @Override
+    public double getAverageScoreForStudent(int studentId) {
+        return caches.get(averages, "student:" + studentId, () -> delegate.getAverageScoreForStudent(studentId));
+    }
+
+    @Override
+    public Map<String, Integer> getScoreDistribution(int quizId) {
+        return new HashMap<>(caches.get(distributions, quizId, () -> delegate.getScoreDistribution(quizId)));
+    }
+
+    @Override
+    public Map<Integer, Double> getQuestionAccuracyForQuiz(int quizId) {
+        return new HashMap<>(caches.get(questionAccuracy, quizId, () -> delegate.getQuestionAccuracyForQuiz(quizId)));
+    }
+
+    @Override
+    public int getTotalAttemptCount() {
+        return caches.get(counts, "total", delegate::getTotalAttemptCount);
+    }
+
+    // ========== Forwarded ==========
+
+    @Override
+    public List<QuizAttempt> getAttemptsByStudent(int studentId) {
+        return delegate.getAttemptsByStudent(studentId);
+    }
+
+    @Override
+    public List<QuizAttempt> getAttemptsByQuiz(int quizId) {
+        return delegate.getAttemptsByQuiz(quizId);
+    }
+
+    @Override
+    public Optional<QuizAttempt> getAttemptById(int attemptId) {
+        return delegate.getAttemptById(attemptId);
+    }
+
+    @Override
+    public List<QuizAttempt> getStudentAttemptsForQuiz(int studentId, int quizId) {
+        return delegate.getStudentAttemptsForQuiz(studentId, quizId);
+    }
+
+    @Override
+    public List<QuizAttempt> getAttemptSummariesByStudent(int studentId) {
+        return delegate.getAttemptSummariesByStudent(studentId);
+    }
+
+    @Override
+    public List<QuizAttempt> getAttemptSummariesByQuiz(int quizId) {
+        return delegate.getAttemptSummariesByQuiz(quizId);
+    }
+
+    @Override
+    public List<QuizAttempt> getStudentAttemptSummariesForQuiz(int studentId, int quizId) {
+        return delegate.getStudentAttemptSummariesForQuiz(studentId, quizId);
+    }
+
+    @Override
+    public BestScoreMatrix getBestScores(int[] studentIds, int[] quizIds) {
+        return delegate.getBestScores(studentIds, quizIds);
+    }
+
+    @Override
+    public Map<Integer, QuizStatistics> getQuizStatistics(int[] quizIds) {
+        return delegate.getQuizStatistics(quizIds);
+    }
+
+    // Depends on the date, so never cached
+    @Override
+    public int getAttemptsToday() {
+        return delegate.getAttemptsToday();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.service;
+
+import com.example.model.Group;
+import com.example.model.IntBitmap;
+import com.example.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * GroupService decorator that caches group lookups and group members. Writes go to the
+ * delegate and then drop the entries they make stale (see ServiceCaches), as do the events of
+ * writes made elsewhere. Callers get copies of cached groups and users. Enrollment checks are forwarded: the EnrollmentIndex answers them from memory.
+ */
+public class CachingGroupService implements GroupService {
+
+    private final GroupService delegate;
+    private final ServiceCaches caches;
+
+    private final BoundedCache<Integer, Optional<Group>> groupsById;
+    private final BoundedCache<String, Optional<Group>> groupsByName;
+    private final BoundedCache<String, List<Group>> groupLists;
+    private final BoundedCache<Integer, List<User>> studentsByGroup;
+
+    public CachingGroupService(GroupService delegate, ServiceCaches caches, int cacheSize) {
+        this.delegate = delegate;
+        this.caches = caches;
+        groupsById = caches.newCache("GroupService.getGroupById", cacheSize);
+        groupsByName = caches.newCache("GroupService.getGroupByName", cacheSize);
+        groupLists = caches.newCache("GroupService.groupLists", cacheSize);
+        studentsByGroup = caches.newCache("GroupService.getStudentsInGroup", cacheSize);
+
+        caches.onEvent(DomainEvent.GroupChanged.class, this::groupChanged);
+        caches.onEvent(DomainEvent.EnrollmentChanged.class, e -> {
+            studentsByGroup.invalidate(e.getGroupId());
+            groupLists.invalidate("student:" + e.getStudentId());
+        });
+        // Member lists hold the users; a deleted user leaves their groups
+        caches.onEvent(DomainEvent.UserChanged.class, e -> {
+            studentsByGroup.invalidateIf(students -> students.stream().anyMatch(u -> u.getId() == e.getUserId()));
+            groupLists.invalidate("student:" + e.getUserId());
+            groupLists.invalidate("teacher:" + e.getUserId());
+        });
+    }
+
+    // ========== Writes ==========
+
+    @Override
+    public Group createGroup(Group group) {
+        try {
+            return delegate.createGroup(group);
+        } finally {
+            caches.changed(new DomainEvent.GroupChanged(group.getId(), DomainEvent.Change.CREATED));
+        }
+    }
+
+    @Override
+    public boolean updateGroup(Group group) {
+        try {
+            return delegate.updateGroup(group);
+        } finally {
+            caches.changed(new DomainEvent.GroupChanged(group.getId(), DomainEvent.Change.UPDATED));
+        }
+    }
+
+    @Override
+    public boolean deleteGroup(int id) {
+        try {
+            return delegate.deleteGroup(id);
+        } finally {
+            caches.changed(new DomainEvent.GroupChanged(id, DomainEvent.Change.DELETED));
+        }
+    }
+
+    @Override
+    public boolean enrollStudent(int groupId, int studentId) {
+        try {
+            return delegate.enrollStudent(groupId, studentId);
+        } finally {
+            caches.changed(new DomainEvent.EnrollmentChanged(groupId, studentId, true));
+        }
+    }
+
+    @Override
+    public boolean removeStudent(int groupId, int studentId) {
+        try {
+            return delegate.removeStudent(groupId, studentId);
+        } finally {
+            caches.changed(new DomainEvent.EnrollmentChanged(groupId, studentId, false));
+        }
+    }
+
+    @Override
+    public boolean reassignGroups(int fromTeacherId, int toTeacherId) {
+        try {
+            return delegate.reassignGroups(fromTeacherId, toTeacherId);
+        } finally {
+            caches.changed(() -> teacherChanged(fromTeacherId, toTeacherId));
+        }
+    }
+
+    // ========== Invalidation ==========
+
+    private void groupChanged(DomainEvent.GroupChanged event) {
+        int groupId = event.getGroupId();
+        groupsById.invalidate(groupId);
+        // A new or renamed group may answer a name that was not found before
+        groupsByName.invalidateIf(group -> group.map(g -> g.getId() == groupId).orElse(true));
+        groupLists.invalidate("all");
+        groupLists.invalidateIf(groups -> groups.stream().anyMatch(g -> g.getId() == groupId));
+        if (event.getChange() != DomainEvent.Change.DELETED) {
+            // The event does not name the teacher whose list the group joins
+            groupLists.invalidateKeysIf(key -> key.startsWith("teacher:"));
+        }
+        studentsByGroup.invalidate(groupId);
+    }
+
+    // The moved groups' events follow from the delegate; this makes the next read here fresh
+    private void teacherChanged(int fromTeacherId, int toTeacherId) {
+        groupsById.invalidateIf(group -> group.map(g -> g.getTeacherId() == fromTeacherId).orElse(false));
+        groupsByName.invalidateIf(group -> group.map(g -> g.getTeacherId() == fromTeacherId).orElse(false));
+        groupLists.invalidateIf(groups -> groups.stream().anyMatch(g -> g.getTeacherId() == fromTeacherId));
+        groupLists.invalidate("teacher:" + toTeacherId);
+    }
+
+    // ========== Cached reads ==========
+
+    @Override
+    public List<Group> getAllGroups() {
+        return copyGroups(caches.get(groupLists, "all", delegate::getAllGroups));
+    }
+
+    @Override
+    public List<Group> getGroupsByTeacher(int teacherId) {
+        return copyGroups(caches.get(groupLists, "teacher:" + teacherId, () -> delegate.getGroupsByTeacher(teacherId)));
+    }
+
+    @Override
+    public List<Group> getGroupsByStudent(int studentId) {
+        return copyGroups(caches.get(groupLists, "student:" + studentId, () -> delegate.getGroupsByStudent(studentId)));
+    }
+
+    @Override
+    public Optional<Group> getGroupById(int id) {
+        return caches.get(groupsById, id, () -> delegate.getGroupById(id)).map(Group::copy);
+    }
+
+    @Override
+    public Optional<Group> getGroupByName(String name) {
+        return caches.get(groupsByName, name, () -> delegate.getGroupByName(name)).map(Group::copy);
+    }
+
+    @Override
+    public List<User> getStudentsInGroup(int groupId) {
+        List<User> students = caches.get(studentsByGroup, groupId, () -> delegate.getStudentsInGroup(groupId));
+        return students.stream().map(User::copy).collect(Collectors.toList());
+    }
+
+    // ========== Forwarded (answered by the EnrollmentIndex) ==========
+
+    @Override
+    public boolean isStudentEnrolled(int groupId, int studentId) {
+        return delegate.isStudentEnrolled(groupId, studentId);
+    }
+
+    @Override
+    public IntBitmap getStudentIdsInAnyGroup(int... groupIds) {
+        return delegate.getStudentIdsInAnyGroup(groupIds);
+    }
+
+    @Override
+    public IntBitmap getStudentIdsInAllGroups(int... groupIds) {
+        return delegate.getStudentIdsInAllGroups(groupIds);
+    }
+
+    private List<Group> copyGroups(List<Group> groups) {
+        return groups.stream().map(Group::copy).collect(Collectors.toList());
+    }
+}
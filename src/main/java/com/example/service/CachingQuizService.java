@@ -0,0 +1,286 @@
+package com.example.service;
+
+import com.example.model.Quiz;
+import com.example.model.QuizSummary;
+import com.example.model.StudentQuizSnapshot;
+import com.example.model.User;
+import com.example.quizlogic.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * QuizService decorator that caches the lookups the dashboards repeat: summary lists,
+ * snapshots, questions and counts. Single quizzes and summaries are forwarded, since
+ * DatabaseQuizService already caches them. Writes go to the delegate and then drop the entries they make stale (see ServiceCaches),
+ * as do the events of writes made elsewhere. Everything else is forwarded unchanged, so the
+ * delegate's own SQL versions of the default methods are still used.
+ */
+public class CachingQuizService implements QuizService {
+
+    private final QuizService delegate;
+    private final ServiceCaches caches;
+
+    private final BoundedCache<String, List<QuizSummary>> summaryLists;
+    private final BoundedCache<Integer, List<StudentQuizSnapshot>> snapshotsByStudent;
+    private final BoundedCache<Integer, List<Question>> questionsByQuiz;
+    private final BoundedCache<String, Integer> counts;
+
+    public CachingQuizService(QuizService delegate, ServiceCaches caches, int cacheSize) {
+        this.delegate = delegate;
+        this.caches = caches;
+        summaryLists = caches.newCache("QuizService.summaryLists", cacheSize);
+        snapshotsByStudent = caches.newCache("QuizService.getAssignedQuizSnapshots", cacheSize);
+        questionsByQuiz = caches.newCache("QuizService.getQuestionsByQuiz", cacheSize);
+        counts = caches.newCache("QuizService.counts", cacheSize);
+
+        caches.onEvent(DomainEvent.QuizChanged.class, this::quizChanged);
+        caches.onEvent(DomainEvent.QuestionChanged.class, e -> quizzesChanged(e.getQuizIds()));
+        caches.onEvent(DomainEvent.AttemptSaved.class, e -> snapshotsByStudent.invalidate(e.getStudentId()));
+        caches.onEvent(DomainEvent.EnrollmentChanged.class, e -> assignedQuizzesChanged(e.getStudentId()));
+        caches.onEvent(DomainEvent.GroupChanged.class, this::groupChanged);
+        caches.onEvent(DomainEvent.UserChanged.class, e -> userChanged(e.getUserId()));
+    }
+
+    // ========== Writes ==========
+
+    @Override
+    public Quiz createQuiz(Quiz quiz) {
+        try {
+            return delegate.createQuiz(quiz);
+        } finally {
+            caches.changed(new DomainEvent.QuizChanged(quiz.getId(), DomainEvent.Change.CREATED));
+        }
+    }
+
+    @Override
+    public boolean updateQuiz(Quiz quiz) {
+        try {
+            return delegate.updateQuiz(quiz);
+        } finally {
+            caches.changed(new DomainEvent.QuizChanged(quiz.getId(), DomainEvent.Change.UPDATED));
+        }
+    }
+
+    @Override
+    public boolean deleteQuiz(int quizId) {
+        try {
+            return delegate.deleteQuiz(quizId);
+        } finally {
+            caches.changed(new DomainEvent.QuizChanged(quizId, DomainEvent.Change.DELETED));
+        }
+    }
+
+    @Override
+    public Question addQuestion(int quizId, Question question) {
+        try {
+            return delegate.addQuestion(quizId, question);
+        } finally {
+            caches.changed(new DomainEvent.QuestionChanged(question.getId(), new int[]{quizId},
+                    DomainEvent.Change.CREATED));
+        }
+    }
+
+    // The quizzes a question belongs to are only looked up by the delegate: drop every quiz's
+    // questions and summaries here; the delegate's event then reaches the other services
+    @Override
+    public boolean updateQuestion(Question question) {
+        try {
+            return delegate.updateQuestion(question);
+        } finally {
+            caches.changed(this::allQuizzesChanged);
+        }
+    }
+
+    @Override
+    public boolean deleteQuestion(int questionId) {
+        try {
+            return delegate.deleteQuestion(questionId);
+        } finally {
+            caches.changed(this::allQuizzesChanged);
+        }
+    }
+
+    @Override
+    public boolean addQuestionToQuiz(int quizId, String question, String optionA, String optionB,
+                                     String optionC, String optionD, char correctOption, int score) {
+        try {
+            return delegate.addQuestionToQuiz(quizId, question, optionA, optionB, optionC, optionD,
+                    correctOption, score);
+        } finally {
+            caches.changed(new DomainEvent.QuestionChanged(0, new int[]{quizId}, DomainEvent.Change.CREATED));
+        }
+    }
+
+    // Assignment follows group enrollment; these write nothing
+    @Override
+    public boolean assignQuizToStudent(int quizId, int studentId) {
+        return delegate.assignQuizToStudent(quizId, studentId);
+    }
+
+    @Override
+    public boolean assignQuizToStudents(int quizId, List<Integer> studentIds) {
+        return delegate.assignQuizToStudents(quizId, studentIds);
+    }
+
+    // ========== Invalidation ==========
+
+    private void quizChanged(DomainEvent.QuizChanged event) {
+        if (event.getChange() == DomainEvent.Change.CREATED) {
+            // Which lists the new quiz joins depends on its group, which the event does not carry
+            questionsByQuiz.invalidate(event.getQuizId());
+            summaryLists.invalidateAll();
+            snapshotsByStudent.invalidateAll();
+            counts.invalidateAll();
+        } else {
+            quizzesChanged(event.getQuizId());
+        }
+    }
+
+    // Title, questions or score of these quizzes changed, or they were deleted
+    private void quizzesChanged(int... quizIds) {
+        for (int quizId : quizIds) {
+            questionsByQuiz.invalidate(quizId);
+        }
+        summaryLists.invalidateIf(summaries -> summaries.stream().anyMatch(s -> contains(quizIds, s.getId())));
+        snapshotsByStudent.invalidateIf(snapshots -> snapshots.stream().anyMatch(s -> contains(quizIds, s.getId())));
+        counts.invalidateAll();
+    }
+
+    private void allQuizzesChanged() {
+        questionsByQuiz.invalidateAll();
+        summaryLists.invalidateAll();
+        snapshotsByStudent.invalidateAll();
+        counts.invalidateAll();
+    }
+
+    private void assignedQuizzesChanged(int studentId) {
+        summaryLists.invalidate("student:" + studentId);
+        snapshotsByStudent.invalidate(studentId);
+    }
+
+    // A group's teacher changed, or it was deleted with its quizzes
+    private void groupChanged(DomainEvent.GroupChanged event) {
+        int groupId = event.getGroupId();
+        // Lists by teacher gain or lose the group's quizzes
+        summaryLists.invalidateAll();
+        snapshotsByStudent.invalidateIf(snapshots -> snapshots.stream().anyMatch(s -> s.getGroupId() == groupId));
+        if (event.getChange() == DomainEvent.Change.DELETED) {
+            counts.invalidateAll();
+        }
+    }
+
+    // Summaries carry the teacher's name; a deleted student's lists go as well
+    private void userChanged(int userId) {
+        summaryLists.invalidateIf(summaries -> summaries.stream().anyMatch(s -> s.getTeacherId() == userId));
+        snapshotsByStudent.invalidateIf(snapshots -> snapshots.stream().anyMatch(s -> s.getTeacherId() == userId));
+        assignedQuizzesChanged(userId);
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ========== Cached reads ==========
+
+    @Override
+    public List<Question> getQuestionsByQuiz(int quizId) {
+        List<Question> questions = caches.get(questionsByQuiz, quizId, () -> delegate.getQuestionsByQuiz(quizId));
+        return questions.stream().map(Question::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<QuizSummary> getAllQuizSummaries() {
+        return new ArrayList<>(caches.get(summaryLists, "all", delegate::getAllQuizSummaries));
+    }
+
+    @Override
+    public List<QuizSummary> getQuizSummariesByTeacher(int teacherId) {
+        return new ArrayList<>(caches.get(summaryLists, "teacher:" + teacherId,
+                () -> delegate.getQuizSummariesByTeacher(teacherId)));
+    }
+
+    @Override
+    public List<QuizSummary> getQuizSummariesByGroup(int groupId) {
+        return new ArrayList<>(caches.get(summaryLists, "group:" + groupId,
+                () -> delegate.getQuizSummariesByGroup(groupId)));
+    }
+
+    @Override
+    public List<QuizSummary> getAssignedQuizSummaries(int studentId) {
+        return new ArrayList<>(caches.get(summaryLists, "student:" + studentId,
+                () -> delegate.getAssignedQuizSummaries(studentId)));
+    }
+
+    @Override
+    public List<StudentQuizSnapshot> getAssignedQuizSnapshots(int studentId) {
+        return new ArrayList<>(caches.get(snapshotsByStudent, studentId,
+                () -> delegate.getAssignedQuizSnapshots(studentId)));
+    }
+
+    @Override
+    public int getTotalQuizCount() {
+        return caches.get(counts, "total", delegate::getTotalQuizCount);
+    }
+
+    @Override
+    public int getActiveQuizCount() {
+        return caches.get(counts, "active", delegate::getActiveQuizCount);
+    }
+
+    // ========== Forwarded ==========
+
+    // Cached by DatabaseQuizService itself
+    @Override
+    public Optional<Quiz> getQuizById(int quizId) {
+        return delegate.getQuizById(quizId);
+    }
+
+    @Override
+    public Optional<QuizSummary> getQuizSummaryById(int quizId) {
+        return delegate.getQuizSummaryById(quizId);
+    }
+
+    // Answered from memory by the EnrollmentIndex
+    @Override
+    public boolean isQuizAssigned(int quizId, int studentId) {
+        return delegate.isQuizAssigned(quizId, studentId);
+    }
+
+    @Override
+    public List<Quiz> getAllQuizzes() {
+        return delegate.getAllQuizzes();
+    }
+
+    @Override
+    public List<Quiz> getQuizzesByTeacher(int teacherId) {
+        return delegate.getQuizzesByTeacher(teacherId);
+    }
+
+    @Override
+    public List<Quiz> getQuizzesByGroup(int groupId) {
+        return delegate.getQuizzesByGroup(groupId);
+    }
+
+    @Override
+    public List<Quiz> searchQuizzes(String query) {
+        return delegate.searchQuizzes(query);
+    }
+
+    @Override
+    public List<Quiz> getAssignedQuizzes(int studentId) {
+        return delegate.getAssignedQuizzes(studentId);
+    }
+
+    @Override
+    public List<User> getStudentsAssignedToQuiz(int quizId) {
+        return delegate.getStudentsAssignedToQuiz(quizId);
+    }
+}
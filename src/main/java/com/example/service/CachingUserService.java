@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * UserService decorator that caches users by role and the user counts. Lookups by id and
+ * email are forwarded, since DatabaseUserService already caches them. Any user change, through
+ * this service or a registration, drops the role lists and counts (see ServiceCaches).
+ * Callers get copies of cached users.
+ */
+public class CachingUserService implements UserService {
+
+    private final UserService delegate;
+    private final ServiceCaches caches;
+
+    private final BoundedCache<User.Role, List<User>> usersByRole;
+    private final BoundedCache<String, Integer> counts;
+
+    public CachingUserService(UserService delegate, ServiceCaches caches, int cacheSize) {
+        this.delegate = delegate;
+        this.caches = caches;
+        usersByRole = caches.newCache("UserService.getUsersByRole", cacheSize);
+        counts = caches.newCache("UserService.counts", cacheSize);
+
+        // The event does not say which role changed; there are only three
+        caches.onEvent(DomainEvent.UserChanged.class, e -> {
+            usersByRole.invalidateAll();
+            counts.invalidateAll();
+        });
+    }
+
+    // ========== Writes ==========
+
+    @Override
+    public User createUser(User user) {
+        try {
+            return delegate.createUser(user);
+        } finally {
+            caches.changed(new DomainEvent.UserChanged(user.getId(), DomainEvent.Change.CREATED));
+        }
+    }
+
+    @Override
+    public boolean updateUser(User user) {
+        try {
+            return delegate.updateUser(user);
+        } finally {
+            caches.changed(new DomainEvent.UserChanged(user.getId(), DomainEvent.Change.UPDATED));
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int id) {
+        try {
+            return delegate.deleteUser(id);
+        } finally {
+            caches.changed(new DomainEvent.UserChanged(id, DomainEvent.Change.DELETED));
+        }
+    }
+
+    // ========== Cached reads ==========
+
+    @Override
+    public List<User> getUsersByRole(User.Role role) {
+        List<User> users = caches.get(usersByRole, role, () -> delegate.getUsersByRole(role));
+        return users.stream().map(User::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public int countUsersByRole(User.Role role) {
+        return caches.get(counts, role.name(), () -> delegate.countUsersByRole(role));
+    }
+
+    @Override
+    public int getTotalUserCount() {
+        return caches.get(counts, "total", delegate::getTotalUserCount);
+    }
+
+    // ========== Forwarded ==========
+
+    // Cached by DatabaseUserService itself
+    @Override
+    public Optional<User> getUserById(int id) {
+        return delegate.getUserById(id);
+    }
+
+    @Override
+    public Optional<User> getUserByEmail(String email) {
+        return delegate.getUserByEmail(email);
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public List<User> searchUsers(String query) {
+        return delegate.searchUsers(query);
+    }
+}
@@ -2,14 +2,18 @@ package com.example.service;
 
 import com.example.database.DatabaseManager;
 import com.example.database.InsertIntoDatabase;
+import com.example.database.QuizStatsTable;
 import com.example.database.RetrieveFromDatabase;
+import com.example.database.ServiceQueries;
+import com.example.model.BestScoreMatrix;
+import com.example.model.QuizStatistics;
 import com.example.quizlogic.QuizAttempt;
 import com.example.quizlogic.StudentAnswer;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -20,38 +24,18 @@ import java.util.Optional;
 
 /**
  * Real implementation of AttemptService using SQLite database.
+ * Publishes an AttemptSaved event for every attempt once its transaction has committed.
  */
 public class DatabaseAttemptService implements AttemptService {
 
-    private final Connection conn;
-
-    public DatabaseAttemptService() {
-        this.conn = DatabaseManager.connectWithDatabase();
-        if (conn == null) {
-            throw new RuntimeException("Failed to connect to database");
-        }
-    }
+    private final DomainEventBus events = DomainEventBus.getInstance();
 
     @Override
     public QuizAttempt saveAttempt(QuizAttempt attempt) {
         try {
-            // Get the next attempt number
-            int attemptNumber = RetrieveFromDatabase.getNextAttemptNumber(conn, attempt.getQuizId(), attempt.getStudentId());
-
-            // Save the overall score
-            InsertIntoDatabase.insertScore(conn, attempt.getQuizId(), attempt.getStudentId(), attemptNumber, attempt.getTotalScore());
-
-            // Save each answer
-            for (StudentAnswer answer : attempt.getAnswers()) {
-                InsertIntoDatabase.insertStudentAnswer(
-                    conn,
-                    answer.getQuestionId(),
-                    attempt.getStudentId(),
-                    attemptNumber,
-                    answer.getSelectedOption()
-                );
-            }
-
+            // Score row and all answer rows commit together (one fsync) or not at all
+            DatabaseManager.executeInTransaction(conn -> insertAttempt(conn, attempt));
+            publishSaved(attempt);
             return attempt;
         } catch (SQLException e) {
             System.err.println("Error saving attempt: " + e.getMessage());
@@ -60,110 +44,229 @@ public class DatabaseAttemptService implements AttemptService {
     }
 
     @Override
-    public List<QuizAttempt> getAttemptsByStudent(int studentId) {
-        List<QuizAttempt> attempts = new ArrayList<>();
-        String sql = "SELECT quiz_id, student_id, attempt, score FROM scores WHERE student_id=" + studentId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int quizId = rs.getInt("quiz_id");
-                int attemptNum = rs.getInt("attempt");
-                int score = rs.getInt("score");
+    public List<QuizAttempt> saveAttempts(List<QuizAttempt> attempts) {
+        try {
+            persistAttempts(attempts);
+        } catch (SQLException e) {
+            System.err.println("Error saving attempts: " + e.getMessage());
+        }
+        return attempts;
+    }
 
-                List<StudentAnswer> answers = getAnswersForAttempt(quizId, studentId, attemptNum);
-                QuizAttempt attempt = new QuizAttempt(quizId, studentId, attemptNum, score, answers);
-                attempts.add(attempt);
+    /**
+     * Save several attempts in one transaction (group commit).
+     * @throws SQLException if any attempt fails; none of them are saved
+     */
+    public void persistAttempts(List<QuizAttempt> attempts) throws SQLException {
+        DatabaseManager.executeInTransaction(conn -> {
+            for (QuizAttempt attempt : attempts) {
+                insertAttempt(conn, attempt);
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting attempts by student: " + e.getMessage());
+            return attempts.size();
+        });
+        for (QuizAttempt attempt : attempts) {
+            publishSaved(attempt);
         }
+    }
 
-        return attempts;
+    private void publishSaved(QuizAttempt attempt) {
+        events.publish(new DomainEvent.AttemptSaved(attempt.getId(), attempt.getQuizId(), attempt.getStudentId()));
+    }
+
+    // Insert the score row and answer rows of one attempt; the caller owns the transaction
+    private QuizAttempt insertAttempt(Connection conn, QuizAttempt attempt) throws SQLException {
+        // Get the next attempt number (sees attempts inserted earlier in the same transaction)
+        int attemptNumber = RetrieveFromDatabase.getNextAttemptNumber(conn, attempt.getQuizId(), attempt.getStudentId());
+
+        // Save the overall score
+        int attemptId = InsertIntoDatabase.insertScore(conn, attempt.getQuizId(), attempt.getStudentId(), attemptNumber,
+                attempt.getTotalScore(), attempt.getAttemptedAt());
+
+        // Count it in the quiz's statistics row, in the same transaction
+        QuizStatsTable.recordAttempt(conn, attempt.getQuizId(), attempt.getTotalScore());
+
+        // Save every answer in one batch; correctness and points come from QuizGrader
+        InsertIntoDatabase.insertStudentAnswers(conn, attemptId, attempt.getStudentId(), attemptNumber,
+                attempt.getAnswers(), attempt.getAttemptedAt().toLocalDate());
+
+        attempt.setId(attemptId);
+        return attempt;
+    }
+
+    @Override
+    public List<QuizAttempt> getAttemptsByStudent(int studentId) {
+        return loadAttempts(ServiceQueries.BY_STUDENT, true, "Error getting attempts by student: ", studentId);
     }
 
     @Override
     public List<QuizAttempt> getAttemptsByQuiz(int quizId) {
-        List<QuizAttempt> attempts = new ArrayList<>();
-        String sql = "SELECT quiz_id, student_id, attempt, score FROM scores WHERE quiz_id=" + quizId;
+        return loadAttempts(ServiceQueries.BY_QUIZ, true, "Error getting attempts by quiz: ", quizId);
+    }
+
+    @Override
+    public Optional<QuizAttempt> getAttemptById(int attemptId) {
+        return loadAttempts(ServiceQueries.BY_ID, true, "Error getting attempt: ", attemptId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<QuizAttempt> getStudentAttemptsForQuiz(int studentId, int quizId) {
+        return loadAttempts(ServiceQueries.BY_STUDENT_AND_QUIZ, true,
+                "Error getting student attempts for quiz: ", studentId, quizId);
+    }
+
+    @Override
+    public List<QuizAttempt> getAttemptSummariesByStudent(int studentId) {
+        return loadAttempts(ServiceQueries.BY_STUDENT, false, "Error getting attempts by student: ", studentId);
+    }
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    @Override
+    public List<QuizAttempt> getAttemptSummariesByQuiz(int quizId) {
+        return loadAttempts(ServiceQueries.BY_QUIZ, false, "Error getting attempts by quiz: ", quizId);
+    }
 
-            while (rs.next()) {
-                int studentId = rs.getInt("student_id");
-                int attemptNum = rs.getInt("attempt");
-                int score = rs.getInt("score");
+    @Override
+    public List<QuizAttempt> getStudentAttemptSummariesForQuiz(int studentId, int quizId) {
+        return loadAttempts(ServiceQueries.BY_STUDENT_AND_QUIZ, false,
+                "Error getting student attempts for quiz: ", studentId, quizId);
+    }
 
-                List<StudentAnswer> answers = getAnswersForAttempt(quizId, studentId, attemptNum);
-                QuizAttempt attempt = new QuizAttempt(quizId, studentId, attemptNum, score, answers);
-                attempts.add(attempt);
+    @Override
+    public boolean hasStudentAttemptedQuiz(int studentId, int quizId) {
+        String sql = ServiceQueries.ATTEMPT_COUNT;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count") > 0;
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting attempts by quiz: " + e.getMessage());
+            System.err.println("Error checking if student attempted quiz: " + e.getMessage());
         }
 
-        return attempts;
+        return false;
     }
 
+    // ========== Aggregates ==========
+    // Computed by SQLite from the covering scores indexes, instead of loading every attempt
+
     @Override
-    public Optional<QuizAttempt> getAttemptById(int attemptId) {
-        // Note: Your schema doesn't have attempt ID as primary key
-        // Using quiz_id + student_id + attempt number combination instead
+    public Optional<Integer> getBestScore(int studentId, int quizId) {
+        String sql = ServiceQueries.BEST_SCORE;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int best = rs.getInt("best");
+                    // MAX over no rows is NULL: the student has no attempts
+                    if (!rs.wasNull()) {
+                        return Optional.of(best);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting best score: " + e.getMessage());
+        }
+
         return Optional.empty();
     }
 
     @Override
-    public List<QuizAttempt> getStudentAttemptsForQuiz(int studentId, int quizId) {
-        List<QuizAttempt> attempts = new ArrayList<>();
-        String sql = "SELECT quiz_id, student_id, attempt, score FROM scores " +
-                     "WHERE student_id=" + studentId + " AND quiz_id=" + quizId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int attemptNum = rs.getInt("attempt");
-                int score = rs.getInt("score");
-
-                List<StudentAnswer> answers = getAnswersForAttempt(quizId, studentId, attemptNum);
-                QuizAttempt attempt = new QuizAttempt(quizId, studentId, attemptNum, score, answers);
-                attempts.add(attempt);
+    public BestScoreMatrix getBestScores(int[] studentIds, int[] quizIds) {
+        BestScoreMatrix matrix = new BestScoreMatrix(studentIds, quizIds);
+        if (studentIds.length == 0 || quizIds.length == 0) {
+            return matrix;
+        }
+        // One grouped query for the whole matrix; a group is far below SQLite's 32766 parameter limit
+        String sql = ServiceQueries.bestScores(quizIds.length, studentIds.length);
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int quizId : quizIds) {
+                stmt.setInt(index++, quizId);
+            }
+            for (int studentId : studentIds) {
+                stmt.setInt(index++, studentId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    matrix.setBestScore(rs.getInt("student_id"), rs.getInt("quiz_id"), rs.getInt("best"));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting student attempts for quiz: " + e.getMessage());
+            System.err.println("Error getting best scores: " + e.getMessage());
         }
 
-        return attempts;
+        return matrix;
     }
 
     @Override
-    public boolean hasStudentAttemptedQuiz(int studentId, int quizId) {
-        String sql = "SELECT COUNT(*) as count FROM scores WHERE student_id=" + studentId + " AND quiz_id=" + quizId;
+    public double getAverageScoreForQuiz(int quizId) {
+        return getQuizStatistics(quizId).getAverageScore();
+    }
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    @Override
+    public double getAverageScoreForStudent(int studentId) {
+        return queryAverage(ServiceQueries.AVERAGE_SCORE_FOR_STUDENT,
+                "Error getting average score for student: ", studentId);
+    }
 
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
+    @Override
+    public int getAttemptCount(int studentId, int quizId) {
+        String sql = ServiceQueries.ATTEMPT_COUNT;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error checking if student attempted quiz: " + e.getMessage());
+            System.err.println("Error getting attempt count: " + e.getMessage());
         }
 
-        return false;
+        return 0;
+    }
+
+    // AVG of a single-id filter; 0.0 when there are no attempts, like the interface defaults
+    private double queryAverage(String sql, String errorMessage, int id) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble("average"); // NULL reads as 0.0
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(errorMessage + e.getMessage());
+        }
+
+        return 0.0;
     }
 
     @Override
     public int getTotalAttemptCount() {
         String sql = "SELECT COUNT(*) as count FROM scores";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting total attempt count: " + e.getMessage());
@@ -174,14 +277,18 @@ public class DatabaseAttemptService implements AttemptService {
 
     @Override
     public int getAttemptsToday() {
-        String today = LocalDate.now().toString();
-        String sql = "SELECT COUNT(*) as count FROM mcqStudentAnswer WHERE date='" + today + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
+        // Submitted attempts (score rows) since midnight
+        LocalDate today = LocalDate.now();
+        String sql = ServiceQueries.ATTEMPTS_BETWEEN;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, today.atStartOfDay().toString());
+            stmt.setString(2, today.plusDays(1).atStartOfDay().toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting attempts today: " + e.getMessage());
@@ -195,24 +302,20 @@ public class DatabaseAttemptService implements AttemptService {
         Map<Integer, Double> accuracyMap = new HashMap<>();
 
         // Get all questions for the quiz
-        String sql = "SELECT qq.question_id, " +
-                     "SUM(CASE WHEN sa.is_correct = 1 THEN 1 ELSE 0 END) as correct_count, " +
-                     "COUNT(*) as total_count " +
-                     "FROM quizQuestion qq " +
-                     "LEFT JOIN mcqStudentAnswer sa ON qq.question_id = sa.question_id " +
-                     "WHERE qq.quiz_id=" + quizId + " " +
-                     "GROUP BY qq.question_id";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int questionId = rs.getInt("question_id");
-                int correctCount = rs.getInt("correct_count");
-                int totalCount = rs.getInt("total_count");
-
-                double accuracy = totalCount > 0 ? (correctCount * 100.0 / totalCount) : 0.0;
-                accuracyMap.put(questionId, accuracy);
+        String sql = ServiceQueries.QUESTION_ACCURACY;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int questionId = rs.getInt("question_id");
+                    int correctCount = rs.getInt("correct_count");
+                    int totalCount = rs.getInt("total_count");
+
+                    double accuracy = totalCount > 0 ? (correctCount * 100.0 / totalCount) : 0.0;
+                    accuracyMap.put(questionId, accuracy);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting question accuracy: " + e.getMessage());
@@ -223,66 +326,131 @@ public class DatabaseAttemptService implements AttemptService {
 
     @Override
     public Map<String, Integer> getScoreDistribution(int quizId) {
-        Map<String, Integer> distribution = new HashMap<>();
-        distribution.put("0-20", 0);
-        distribution.put("21-40", 0);
-        distribution.put("41-60", 0);
-        distribution.put("61-80", 0);
-        distribution.put("81-100", 0);
-
-        String sql = "SELECT score FROM scores WHERE quiz_id=" + quizId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int score = rs.getInt("score");
-
-                // Categorize score
-                String range;
-                if (score <= 20) range = "0-20";
-                else if (score <= 40) range = "21-40";
-                else if (score <= 60) range = "41-60";
-                else if (score <= 80) range = "61-80";
-                else range = "81-100";
-
-                distribution.put(range, distribution.get(range) + 1);
+        return getQuizStatistics(quizId).getScoreDistribution();
+    }
+
+    // ========== Per-quiz statistics ==========
+    // One quizStats row per quiz, kept current by insertAttempt; see QuizStatsTable
+
+    @Override
+    public QuizStatistics getQuizStatistics(int quizId) {
+        return getQuizStatistics(new int[]{quizId}).get(quizId);
+    }
+
+    @Override
+    public Map<Integer, QuizStatistics> getQuizStatistics(int[] quizIds) {
+        Map<Integer, QuizStatistics> statistics = new HashMap<>();
+        for (int quizId : quizIds) {
+            statistics.put(quizId, QuizStatistics.empty(quizId));
+        }
+        if (quizIds.length == 0) {
+            return statistics;
+        }
+        String sql = ServiceQueries.quizStatistics(quizIds.length);
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < quizIds.length; i++) {
+                stmt.setInt(i + 1, quizIds[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int quizId = rs.getInt("quiz_id");
+                    int[] buckets = {
+                            rs.getInt("bucket_0_20"),
+                            rs.getInt("bucket_21_40"),
+                            rs.getInt("bucket_41_60"),
+                            rs.getInt("bucket_61_80"),
+                            rs.getInt("bucket_81_100")
+                    };
+                    statistics.put(quizId, new QuizStatistics(quizId, rs.getInt("attempt_count"),
+                            rs.getLong("score_sum"), rs.getInt("best_score"), rs.getInt("worst_score"), buckets));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting score distribution: " + e.getMessage());
+            System.err.println("Error getting quiz statistics: " + e.getMessage());
         }
 
-        return distribution;
+        return statistics;
     }
 
-    // Helper method to get answers for a specific attempt
-    private List<StudentAnswer> getAnswersForAttempt(int quizId, int studentId, int attemptNum) {
-        List<StudentAnswer> answers = new ArrayList<>();
-        String sql = "SELECT sa.question_id, sa.selected_option, sa.is_correct, sa.score, sa.attempt, m.assigned_score " +
-                     "FROM mcqStudentAnswer sa " +
-                     "INNER JOIN quizQuestion qq ON sa.question_id = qq.question_id " +
-                     "INNER JOIN mcq m ON sa.question_id = m.id " +
-                     "WHERE qq.quiz_id=" + quizId + " AND sa.student_id=" + studentId +
-                     " AND sa.attempt=" + attemptNum;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int questionId = rs.getInt("question_id");
-                char selectedOption = rs.getString("selected_option").charAt(0);
-                boolean isCorrect = rs.getBoolean("is_correct");
-                int assignedScore = rs.getInt("assigned_score");
-                int scoreEarned = rs.getInt("score");
-                int attempt = rs.getInt("attempt");
-
-                StudentAnswer answer = new StudentAnswer(questionId, selectedOption, isCorrect, assignedScore, scoreEarned, attempt);
-                answers.add(answer);
-            }
+    /**
+     * Load score rows and, if wanted, their answers: one query for the attempts and one for
+     * all of their answers, grouped in memory by attempt id. Both run in one read transaction,
+     * so an attempt saved in between cannot show up without its answers.
+     * @param scoresWhere filter on the scores table, one of the ServiceQueries.BY_ constants
+     */
+    private List<QuizAttempt> loadAttempts(String scoresWhere, boolean withAnswers, String errorMessage, int... params) {
+        String sql = ServiceQueries.attempts(scoresWhere);
+
+        try {
+            return DatabaseManager.executeRead(conn -> {
+                List<QuizAttempt> attempts = new ArrayList<>();
+                Map<Integer, List<StudentAnswer>> answersByAttempt = withAnswers
+                        ? getAnswersByAttempt(conn, scoresWhere, params)
+                        : new HashMap<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < params.length; i++) {
+                        stmt.setInt(i + 1, params[i]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int id = rs.getInt("id");
+                            int quizId = rs.getInt("quiz_id");
+                            int studentId = rs.getInt("student_id");
+                            int attemptNum = rs.getInt("attempt");
+                            int score = rs.getInt("score");
+
+                            QuizAttempt attempt;
+                            if (withAnswers) {
+                                List<StudentAnswer> answers = answersByAttempt.getOrDefault(id, new ArrayList<>());
+                                attempt = new QuizAttempt(quizId, studentId, attemptNum, score, answers);
+                            } else {
+                                attempt = new QuizAttempt(quizId, studentId, attemptNum, score);
+                            }
+                            attempt.setId(id);
+                            LocalDateTime attemptedAt = RetrieveFromDatabase.toAttemptedAt(rs.getString("attempted_at"));
+                            if (attemptedAt != null) {
+                                attempt.setAttemptedAt(attemptedAt);
+                            }
+                            attempts.add(attempt);
+                        }
+                    }
+                }
+                return attempts;
+            });
         } catch (SQLException e) {
-            System.err.println("Error getting answers for attempt: " + e.getMessage());
+            System.err.println(errorMessage + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Answers of every attempt matching the scores filter, keyed by attempt id
+    private Map<Integer, List<StudentAnswer>> getAnswersByAttempt(Connection conn, String scoresWhere, int... params)
+            throws SQLException {
+        Map<Integer, List<StudentAnswer>> answersByAttempt = new HashMap<>();
+        String sql = ServiceQueries.answersOfAttempts(scoresWhere);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int questionId = rs.getInt("question_id");
+                    char selectedOption = rs.getString("selected_option").charAt(0);
+                    boolean isCorrect = rs.getBoolean("is_correct");
+                    int assignedScore = rs.getInt("assigned_score");
+                    int scoreEarned = rs.getInt("score");
+                    int attempt = rs.getInt("attempt");
+
+                    StudentAnswer answer = new StudentAnswer(questionId, selectedOption, isCorrect, assignedScore, scoreEarned, attempt);
+                    answersByAttempt.computeIfAbsent(rs.getInt("attempt_id"), k -> new ArrayList<>()).add(answer);
+                }
+            }
         }
 
-        return answers;
+        return answersByAttempt;
     }
 }
@@ -3,12 +3,13 @@ package com.example.service;
 import com.example.database.DatabaseManager;
 import com.example.database.InsertIntoDatabase;
 import com.example.database.RetrieveFromDatabase;
+import com.example.database.ServiceQueries;
 import com.example.model.User;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Optional;
 
 /**
@@ -17,41 +18,35 @@ import java.util.Optional;
  */
 public class DatabaseAuthService implements AuthService {
 
-    private final Connection conn;
-
-    public DatabaseAuthService() {
-        // Get database connection
-        this.conn = DatabaseManager.connectWithDatabase();
-        if (conn == null) {
-            throw new RuntimeException("Failed to connect to database");
-        }
-    }
 
     @Override
     public Optional<User> login(String email, String password) {
-        String sql = "SELECT id, name, lastname, role FROM people WHERE email='" + email.trim() + "' AND password='" + password + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                String name = rs.getString("name");
-                String lastname = rs.getString("lastname");
-                String roleStr = rs.getString("role");
-
-                // Convert role string to enum
-                User.Role role;
-                if ("admin".equalsIgnoreCase(roleStr)) {
-                    role = User.Role.ADMIN;
-                } else if ("teacher".equalsIgnoreCase(roleStr)) {
-                    role = User.Role.TEACHER;
-                } else {
-                    role = User.Role.STUDENT;
+        String sql = ServiceQueries.LOGIN;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, email.trim());
+            stmt.setString(2, password);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int id = rs.getInt("id");
+                    String name = rs.getString("name");
+                    String lastname = rs.getString("lastname");
+                    String roleStr = rs.getString("role");
+
+                    // Convert role string to enum
+                    User.Role role;
+                    if ("admin".equalsIgnoreCase(roleStr)) {
+                        role = User.Role.ADMIN;
+                    } else if ("teacher".equalsIgnoreCase(roleStr)) {
+                        role = User.Role.TEACHER;
+                    } else {
+                        role = User.Role.STUDENT;
+                    }
+
+                    User user = User.createUser(id, email, password, name, lastname, role);
+                    return Optional.of(user);
                 }
-
-                User user = User.createUser(id, email, password, name, lastname, role);
-                return Optional.of(user);
             }
         } catch (SQLException e) {
             System.err.println("Login error: " + e.getMessage());
@@ -63,19 +58,23 @@ public class DatabaseAuthService implements AuthService {
     @Override
     public boolean register(User user) {
         try {
-            // Convert role enum to string
-            String roleStr = user.getRole().toString().toLowerCase();
-
-            // Insert into database and get the generated ID
-            int userId = InsertIntoDatabase.insertPeople(
-                conn,
-                user.getFirstName(),
-                user.getLastName(),
-                user.getEmail(),
-                user.getPassword(),
-                roleStr
-            );
-
+            int registeredId = DatabaseManager.executeWrite(conn -> {
+                // Convert role enum to string
+                String roleStr = user.getRole().toString().toLowerCase();
+
+                // Insert into database and get the generated ID
+                int userId = InsertIntoDatabase.insertPeople(
+                    conn,
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getEmail(),
+                    user.getPassword(),
+                    roleStr
+                );
+
+                return userId;
+            });
+            DomainEventBus.getInstance().publish(new DomainEvent.UserChanged(registeredId, DomainEvent.Change.CREATED));
             return true;
         } catch (SQLException e) {
             System.err.println("Registration error: " + e.getMessage());
@@ -85,14 +84,16 @@ public class DatabaseAuthService implements AuthService {
 
     @Override
     public boolean emailExists(String email) {
-        String sql = "SELECT COUNT(*) as count FROM people WHERE email='" + email.trim() + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                int count = rs.getInt("count");
-                return count > 0;
+        String sql = "SELECT COUNT(*) as count FROM people WHERE email=?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, email.trim());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int count = rs.getInt("count");
+                    return count > 0;
+                }
             }
         } catch (SQLException e) {
             System.err.println("Email check error: " + e.getMessage());
@@ -1,42 +1,41 @@
 package com.example.service;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import com.example.database.DatabaseManager;
 import com.example.database.InsertIntoDatabase;
+import com.example.database.ServiceQueries;
 import com.example.model.Group;
+import com.example.model.IntBitmap;
 import com.example.model.User;
 
 /**
  * Real implementation of GroupService using SQLite database.
+ * Publishes GroupChanged and EnrollmentChanged events after each successful write.
+ * Enrollment checks are answered from the EnrollmentIndex, which the writes here keep current.
  */
 public class DatabaseGroupService implements GroupService {
 
-    private final Connection conn;
-
-    public DatabaseGroupService() {
-        this.conn = DatabaseManager.connectWithDatabase();
-        if (conn == null) {
-            throw new RuntimeException("Failed to connect to database");
-        }
-    }
+    private final DomainEventBus events = DomainEventBus.getInstance();
+    private final EnrollmentIndex enrollments = EnrollmentIndex.getInstance();
 
     @Override
     public List<Group> getAllGroups() {
         List<Group> groups = new ArrayList<>();
         String sql = "SELECT id, name, teacher_id FROM groups";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                groups.add(extractGroupFromResultSet(rs));
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    groups.add(extractGroupFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting all groups: " + e.getMessage());
@@ -48,13 +47,15 @@ public class DatabaseGroupService implements GroupService {
     @Override
     public List<Group> getGroupsByTeacher(int teacherId) {
         List<Group> groups = new ArrayList<>();
-        String sql = "SELECT id, name, teacher_id FROM groups WHERE teacher_id=" + teacherId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                groups.add(extractGroupFromResultSet(rs));
+        String sql = ServiceQueries.GROUPS_BY_TEACHER;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, teacherId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    groups.add(extractGroupFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting groups by teacher: " + e.getMessage());
@@ -65,13 +66,15 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public Optional<Group> getGroupById(int id) {
-        String sql = "SELECT id, name, teacher_id FROM groups WHERE id=" + id;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return Optional.of(extractGroupFromResultSet(rs));
+        String sql = "SELECT id, name, teacher_id FROM groups WHERE id=?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(extractGroupFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting group by ID: " + e.getMessage());
@@ -82,13 +85,15 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public Optional<Group> getGroupByName(String name) {
-        String sql = "SELECT id, name, teacher_id FROM groups WHERE name='" + name + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return Optional.of(extractGroupFromResultSet(rs));
+        String sql = ServiceQueries.GROUP_BY_NAME;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(extractGroupFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting group by name: " + e.getMessage());
@@ -100,14 +105,19 @@ public class DatabaseGroupService implements GroupService {
     @Override
     public Group createGroup(Group group) {
         try {
-            InsertIntoDatabase.insertGroup(
-                conn,
-                group.getName(),
-                group.getTeacherId()
-            );
+            DatabaseManager.executeWrite(conn -> {
+                InsertIntoDatabase.insertGroup(
+                    conn,
+                    group.getName(),
+                    group.getTeacherId()
+                );
+                return null;
+            });
 
             // Get the created group with ID
-            return getGroupByName(group.getName()).orElse(group);
+            Group created = getGroupByName(group.getName()).orElse(group);
+            events.publish(new DomainEvent.GroupChanged(created.getId(), DomainEvent.Change.CREATED));
+            return created;
         } catch (SQLException e) {
             System.err.println("Error creating group: " + e.getMessage());
             return group;
@@ -116,13 +126,22 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public boolean updateGroup(Group group) {
-        String sql = "UPDATE groups SET name='" + group.getName() +
-                    "', teacher_id=" + group.getTeacherId() +
-                    " WHERE id=" + group.getId();
+        String sql = "UPDATE groups SET name=?, teacher_id=? WHERE id=?";
 
-        try (Statement stmt = conn.createStatement()) {
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+        try {
+            boolean updated = DatabaseManager.executeWrite(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, group.getName());
+                    stmt.setInt(2, group.getTeacherId());
+                    stmt.setInt(3, group.getId());
+                    int rowsAffected = stmt.executeUpdate();
+                    return rowsAffected > 0;
+                }
+            });
+            if (updated) {
+                events.publish(new DomainEvent.GroupChanged(group.getId(), DomainEvent.Change.UPDATED));
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating group: " + e.getMessage());
             return false;
@@ -132,42 +151,55 @@ public class DatabaseGroupService implements GroupService {
     @Override
     public boolean deleteGroup(int id) {
         // Remove enrollments, then remove quizzes and related data (scores, quizQuestion links, mcq), then delete the group
-        String deleteEnrollments = "DELETE FROM enrollment WHERE group_id=" + id;
+        String deleteEnrollments = "DELETE FROM enrollment WHERE group_id=?";
 
-        // Delete scores for quizzes that belong to this group
-        String deleteScoresForGroupQuizzes = "DELETE FROM scores WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=" + id + ")";
+        // Delete answers and scores for quizzes that belong to this group
+        String deleteAnswersForGroupQuizzes = "DELETE FROM mcqStudentAnswer WHERE attempt_id IN "
+                + "(SELECT id FROM scores WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=?))";
+        String deleteScoresForGroupQuizzes = "DELETE FROM scores WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=?)";
+        String deleteStatsForGroupQuizzes = "DELETE FROM quizStats WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=?)";
 
         // Delete mcq entries that are linked to quizzes in this group
-        String deleteMcqForGroup = "DELETE FROM mcq WHERE id IN (SELECT question_id FROM quizQuestion WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=" + id + "))";
+        String deleteMcqForGroup = "DELETE FROM mcq WHERE id IN (SELECT question_id FROM quizQuestion WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=?))";
 
         // Delete links between quizzes and questions for this group's quizzes
-        String deleteQuizQuestionLinks = "DELETE FROM quizQuestion WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=" + id + ")";
+        String deleteQuizQuestionLinks = "DELETE FROM quizQuestion WHERE quiz_id IN (SELECT id FROM quiz WHERE group_id=?)";
 
         // Delete quizzes that belong to this group
-        String deleteQuizzes = "DELETE FROM quiz WHERE group_id=" + id;
+        String deleteQuizzes = "DELETE FROM quiz WHERE group_id=?";
 
         // Finally delete the group itself
-        String deleteGroup = "DELETE FROM groups WHERE id=" + id;
-
-        try (Statement stmt = conn.createStatement()) {
-            // Remove enrollments
-            stmt.executeUpdate(deleteEnrollments);
-
-            // Remove attempts/scores related to quizzes
-            stmt.executeUpdate(deleteScoresForGroupQuizzes);
+        String deleteGroup = "DELETE FROM groups WHERE id=?";
 
-            // Remove mcq questions that are only used by these quizzes
-            stmt.executeUpdate(deleteMcqForGroup);
-
-            // Remove linking rows
-            stmt.executeUpdate(deleteQuizQuestionLinks);
-
-            // Remove quizzes
-            stmt.executeUpdate(deleteQuizzes);
-
-            // Remove group
-            int rowsAffected = stmt.executeUpdate(deleteGroup);
-            return rowsAffected > 0;
+        try {
+            // All or nothing: a failure part-way must not leave the group without its quizzes or scores
+            boolean deleted = DatabaseManager.executeInTransaction(conn -> {
+                // Remove enrollments
+                executeUpdate(conn, deleteEnrollments, id);
+
+                // Remove attempts/scores related to quizzes
+                executeUpdate(conn, deleteAnswersForGroupQuizzes, id);
+                executeUpdate(conn, deleteScoresForGroupQuizzes, id);
+                executeUpdate(conn, deleteStatsForGroupQuizzes, id);
+
+                // Remove mcq questions that are only used by these quizzes
+                executeUpdate(conn, deleteMcqForGroup, id);
+
+                // Remove linking rows
+                executeUpdate(conn, deleteQuizQuestionLinks, id);
+
+                // Remove quizzes
+                executeUpdate(conn, deleteQuizzes, id);
+
+                // Remove group
+                int rowsAffected = executeUpdate(conn, deleteGroup, id);
+                return rowsAffected > 0;
+            });
+            if (deleted) {
+                enrollments.groupDeleted(id);
+                events.publish(new DomainEvent.GroupChanged(id, DomainEvent.Change.DELETED));
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting group: " + e.getMessage());
             return false;
@@ -176,9 +208,21 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public boolean reassignGroups(int fromTeacherId, int toTeacherId) {
-        String sql = "UPDATE groups SET teacher_id=" + toTeacherId + " WHERE teacher_id=" + fromTeacherId;
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
+        String sql = "UPDATE groups SET teacher_id=? WHERE teacher_id=?";
+        // The groups that move, for the events
+        List<Group> moved = getGroupsByTeacher(fromTeacherId);
+        try {
+            DatabaseManager.executeWrite(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, toTeacherId);
+                    stmt.setInt(2, fromTeacherId);
+                    stmt.executeUpdate();
+                    return true;
+                }
+            });
+            for (Group group : moved) {
+                events.publish(new DomainEvent.GroupChanged(group.getId(), DomainEvent.Change.UPDATED));
+            }
             return true;
         } catch (SQLException e) {
             System.err.println("Error reassigning groups: " + e.getMessage());
@@ -189,16 +233,15 @@ public class DatabaseGroupService implements GroupService {
     @Override
     public List<User> getStudentsInGroup(int groupId) {
         List<User> students = new ArrayList<>();
-        String sql = "SELECT p.id, p.name, p.lastname, p.email, p.password, p.role " +
-                    "FROM people p " +
-                    "INNER JOIN enrollment e ON p.id = e.student_id " +
-                    "WHERE e.group_id=" + groupId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                students.add(extractUserFromResultSet(rs));
+        String sql = ServiceQueries.STUDENTS_IN_GROUP;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, groupId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(extractUserFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting students in group: " + e.getMessage());
@@ -216,7 +259,12 @@ public class DatabaseGroupService implements GroupService {
         }
 
         try {
-            InsertIntoDatabase.insertEnrollment(conn, groupId, studentId);
+            DatabaseManager.executeWrite(conn -> {
+                InsertIntoDatabase.insertEnrollment(conn, groupId, studentId);
+                return true;
+            });
+            enrollments.enrolled(groupId, studentId);
+            events.publish(new DomainEvent.EnrollmentChanged(groupId, studentId, true));
             return true;
         } catch (SQLException e) {
             System.err.println("Error enrolling student: " + e.getMessage());
@@ -226,12 +274,22 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public boolean removeStudent(int groupId, int studentId) {
-        String sql = "DELETE FROM enrollment WHERE group_id=" + groupId +
-                    " AND student_id=" + studentId;
+        String sql = "DELETE FROM enrollment WHERE group_id=? AND student_id=?";
 
-        try (Statement stmt = conn.createStatement()) {
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+        try {
+            boolean removed = DatabaseManager.executeWrite(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, groupId);
+                    stmt.setInt(2, studentId);
+                    int rowsAffected = stmt.executeUpdate();
+                    return rowsAffected > 0;
+                }
+            });
+            if (removed) {
+                enrollments.unenrolled(groupId, studentId);
+                events.publish(new DomainEvent.EnrollmentChanged(groupId, studentId, false));
+            }
+            return removed;
         } catch (SQLException e) {
             System.err.println("Error removing student from group: " + e.getMessage());
             return false;
@@ -241,16 +299,15 @@ public class DatabaseGroupService implements GroupService {
     @Override
     public List<Group> getGroupsByStudent(int studentId) {
         List<Group> groups = new ArrayList<>();
-        String sql = "SELECT g.id, g.name, g.teacher_id " +
-                    "FROM groups g " +
-                    "INNER JOIN enrollment e ON g.id = e.group_id " +
-                    "WHERE e.student_id=" + studentId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                groups.add(extractGroupFromResultSet(rs));
+        String sql = ServiceQueries.GROUPS_BY_STUDENT;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    groups.add(extractGroupFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting groups by student: " + e.getMessage());
@@ -261,20 +318,25 @@ public class DatabaseGroupService implements GroupService {
 
     @Override
     public boolean isStudentEnrolled(int groupId, int studentId) {
-        String sql = "SELECT COUNT(*) as count FROM enrollment " +
-                    "WHERE group_id=" + groupId + " AND student_id=" + studentId;
+        return enrollments.isEnrolled(groupId, studentId);
+    }
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    @Override
+    public IntBitmap getStudentIdsInAnyGroup(int... groupIds) {
+        return enrollments.studentsInAnyGroup(groupIds);
+    }
 
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking enrollment: " + e.getMessage());
-        }
+    @Override
+    public IntBitmap getStudentIdsInAllGroups(int... groupIds) {
+        return enrollments.studentsInAllGroups(groupIds);
+    }
 
-        return false;
+    // Helper method to run an UPDATE/DELETE that takes a single id parameter
+    private int executeUpdate(Connection conn, String sql, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate();
+        }
     }
 
     // Helper method to extract Group from ResultSet
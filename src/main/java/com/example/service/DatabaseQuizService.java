@@ -1,41 +1,84 @@
 package com.example.service;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.example.database.DatabaseManager;
 import com.example.database.InsertIntoDatabase;
+import com.example.database.ServiceQueries;
 import com.example.model.Quiz;
+import com.example.model.QuizSummary;
+import com.example.model.StudentQuizSnapshot;
 import com.example.model.User;
 import com.example.quizlogic.Question;
 
 /**
  * Real implementation of QuizService using SQLite database.
+ *
+ * getQuizSummaryById goes through a small cache, since the history and results tables look
+ * the same quiz up for every row and cell; getQuizById has one of its own for quizzes with
+ * their questions. Writes through this service invalidate the affected quizzes in both: quiz
+ * updates and deletes by id, question changes every quiz holding the question. Callers always
+ * get their own copy of a Quiz (summaries are immutable).
+ *
+ * Publishes QuizChanged and QuestionChanged events after each successful write, and drops
+ * cached quizzes whose teacher or group another service changed (UserChanged, GroupChanged).
+ * Assignment checks and the groups of a student come from the EnrollmentIndex.
  */
 public class DatabaseQuizService implements QuizService {
 
-    private final Connection conn;
-    private final UserService userService;
+    private static final int QUIZ_CACHE_SIZE = Integer.getInteger("quiz.cache.quizzes", 200);
+
+    private final BoundedCache<Integer, Quiz> quizzesById = new BoundedCache<>("QuizCache.byId", QUIZ_CACHE_SIZE);
+    private final BoundedCache<Integer, QuizSummary> summariesById =
+            new BoundedCache<>("QuizCache.summaryById", QUIZ_CACHE_SIZE);
+    // Bumped by every write; a lookup that started before a write must not cache what it read
+    private long writeVersion;
+    private final DomainEventBus events = DomainEventBus.getInstance();
+    private final EnrollmentIndex enrollments = EnrollmentIndex.getInstance();
+    private final List<DomainEventBus.Subscription> subscriptions = new ArrayList<>();
+
+    public DatabaseQuizService() {
+        // Subscribed before any view, so a view reloading on these events never gets a stale
+        // cached quiz (the invalidation in each write's finally block may not have run yet)
+        subscriptions.add(events.subscribe(DomainEvent.QuizChanged.class, e -> invalidateQuiz(e.getQuizId())));
+        subscriptions.add(events.subscribe(DomainEvent.QuestionChanged.class, e -> {
+            for (int quizId : e.getQuizIds()) {
+                invalidateQuiz(quizId);
+            }
+        }));
+        // The cached quizzes carry their teacher's name and their group
+        subscriptions.add(events.subscribe(DomainEvent.UserChanged.class, e -> invalidateTeacher(e.getUserId())));
+        subscriptions.add(events.subscribe(DomainEvent.GroupChanged.class, e -> invalidateGroup(e.getGroupId())));
+    }
 
-    public DatabaseQuizService(UserService userService) {
-        this.conn = DatabaseManager.connectWithDatabase();
-        if (conn == null) {
-            throw new RuntimeException("Failed to connect to database");
-        }
-        this.userService = userService;
+    /**
+     * Stop listening for events; call when this service is replaced (ServiceLocator.reset()).
+     */
+    public void close() {
+        subscriptions.forEach(DomainEventBus.Subscription::cancel);
+        subscriptions.clear();
     }
 
     @Override
     public Quiz createQuiz(Quiz quiz) {
         try {
-            // Insert quiz using the group id set on the Quiz object (teacher is derived from the group)
-            int quizId = InsertIntoDatabase.insertQuiz(conn, quiz.getTitle(), quiz.getDescription(), quiz.getGroupId());
-            quiz.setId(quizId);
+            DatabaseManager.executeWrite(conn -> {
+                // Insert quiz using the group id set on the Quiz object (teacher is derived from the group)
+                int quizId = InsertIntoDatabase.insertQuiz(conn, quiz.getTitle(), quiz.getDescription(), quiz.getGroupId());
+                quiz.setId(quizId);
+                return quiz;
+            });
+            enrollments.quizCreated(quiz.getId(), quiz.getGroupId());
+            events.publish(new DomainEvent.QuizChanged(quiz.getId(), DomainEvent.Change.CREATED));
             return quiz;
         } catch (SQLException e) {
             System.err.println("Error creating quiz: " + e.getMessage());
@@ -45,15 +88,27 @@ public class DatabaseQuizService implements QuizService {
 
     @Override
     public boolean updateQuiz(Quiz quiz) {
-        String sql = "UPDATE quiz SET quiz_name='" + quiz.getTitle() + "', description='" + quiz.getDescription() +
-                     "' WHERE id=" + quiz.getId();
+        String sql = "UPDATE quiz SET quiz_name=?, description=? WHERE id=?";
 
-        try (Statement stmt = conn.createStatement()) {
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+        try {
+            boolean updated = DatabaseManager.executeWrite(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, quiz.getTitle());
+                    stmt.setString(2, quiz.getDescription());
+                    stmt.setInt(3, quiz.getId());
+                    int rowsAffected = stmt.executeUpdate();
+                    return rowsAffected > 0;
+                }
+            });
+            if (updated) {
+                events.publish(new DomainEvent.QuizChanged(quiz.getId(), DomainEvent.Change.UPDATED));
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating quiz: " + e.getMessage());
             return false;
+        } finally {
+            invalidateQuiz(quiz.getId());
         }
     }
 
@@ -61,34 +116,51 @@ public class DatabaseQuizService implements QuizService {
     public boolean deleteQuiz(int quizId) {
         try {
             // Delete related records first
-            String deleteQuestions = "DELETE FROM quizQuestion WHERE quiz_id=" + quizId;
-            String deleteScores = "DELETE FROM scores WHERE quiz_id=" + quizId;
-            String deleteQuiz = "DELETE FROM quiz WHERE id=" + quizId;
-
-            try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate(deleteQuestions);
-                stmt.executeUpdate(deleteScores);
-                int rowsAffected = stmt.executeUpdate(deleteQuiz);
+            String deleteQuestions = "DELETE FROM quizQuestion WHERE quiz_id=?";
+            String deleteScores = "DELETE FROM scores WHERE quiz_id=?";
+            String deleteStats = "DELETE FROM quizStats WHERE quiz_id=?";
+            String deleteQuiz = "DELETE FROM quiz WHERE id=?";
+
+            // All or nothing, so a failure part-way cannot leave a quiz without its questions or scores
+            boolean deleted = DatabaseManager.executeInTransaction(conn -> {
+                executeUpdate(conn, deleteQuestions, quizId);
+                executeUpdate(conn, ServiceQueries.DELETE_QUIZ_ANSWERS, quizId);
+                executeUpdate(conn, deleteScores, quizId);
+                executeUpdate(conn, deleteStats, quizId);
+                int rowsAffected = executeUpdate(conn, deleteQuiz, quizId);
                 return rowsAffected > 0;
+            });
+            if (deleted) {
+                enrollments.quizDeleted(quizId);
+                events.publish(new DomainEvent.QuizChanged(quizId, DomainEvent.Change.DELETED));
             }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting quiz: " + e.getMessage());
             return false;
+        } finally {
+            invalidateQuiz(quizId);
         }
     }
 
     @Override
     public Optional<Quiz> getQuizById(int quizId) {
-        String sql = "SELECT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id WHERE q.id=" + quizId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        Quiz cached = quizzesById.get(quizId);
+        if (cached != null) {
+            return Optional.of(cached.copy());
+        }
 
-            if (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quizId));
-                return Optional.of(quiz);
+        long version = currentWriteVersion();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ServiceQueries.QUIZ_BY_ID)) {
+            stmt.setInt(1, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Quiz quiz = extractQuizFromResultSet(rs);
+                    quiz.setQuestions(getQuestionsByQuiz(quizId));
+                    cacheQuiz(quiz, version);
+                    return Optional.of(quiz);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting quiz by ID: " + e.getMessage());
@@ -99,173 +171,148 @@ public class DatabaseQuizService implements QuizService {
 
     @Override
     public List<Quiz> getAllQuizzes() {
-        List<Quiz> quizzes = new ArrayList<>();
-        String sql = "SELECT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quiz.getId()));
-                quizzes.add(quiz);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting all quizzes: " + e.getMessage());
-        }
-
-        return quizzes;
+        return loadQuizzes(ServiceQueries.QUIZ_SELECT, null, "Error getting all quizzes: ");
     }
 
     @Override
     public List<Quiz> getQuizzesByTeacher(int teacherId) {
-        List<Quiz> quizzes = new ArrayList<>();
-        String sql = "SELECT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id WHERE g.teacher_id=" + teacherId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quiz.getId()));
-                quizzes.add(quiz);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting quizzes by teacher: " + e.getMessage());
-        }
-
-        return quizzes;
+        return loadQuizzes(ServiceQueries.QUIZZES_BY_TEACHER, ServiceQueries.QUIZ_IDS_BY_TEACHER,
+                "Error getting quizzes by teacher: ", teacherId);
     }
 
     @Override
     public List<Quiz> getQuizzesByGroup(int groupId) {
-        List<Quiz> quizzes = new ArrayList<>();
-        String sql = "SELECT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id WHERE q.group_id=" + groupId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quiz.getId()));
-                quizzes.add(quiz);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting quizzes by group: " + e.getMessage());
-        }
-
-        return quizzes;
+        return loadQuizzes(ServiceQueries.QUIZZES_BY_GROUP, ServiceQueries.QUIZ_IDS_BY_GROUP,
+                "Error getting quizzes by group: ", groupId);
     }
 
     @Override
     public List<Quiz> searchQuizzes(String query) {
-        List<Quiz> quizzes = new ArrayList<>();
-        String sql = "SELECT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q LEFT JOIN groups g ON q.group_id = g.id " +
-                     "WHERE q.quiz_name LIKE '%" + query + "%' OR q.description LIKE '%" + query + "%'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quiz.getId()));
-                quizzes.add(quiz);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error searching quizzes: " + e.getMessage());
-        }
-
-        return quizzes;
+        String pattern = "%" + query + "%";
+        return loadQuizzes(ServiceQueries.QUIZ_SELECT + "WHERE q.quiz_name LIKE ? OR q.description LIKE ?",
+                "SELECT id FROM quiz WHERE quiz_name LIKE ? OR description LIKE ?",
+                "Error searching quizzes: ", pattern, pattern);
     }
 
     @Override
     public Question addQuestion(int quizId, Question question) {
         try {
-            // Insert the MCQ
-            int questionId = InsertIntoDatabase.insertMcq(
-                conn,
-                question.getText(),
-                question.getOptionA(),
-                question.getOptionB(),
-                question.getOptionC(),
-                question.getOptionD(),
-                question.getCorrectAnswer(),
-                question.getAssignedScore()
-            );
-
-            // Link it to the quiz
-            InsertIntoDatabase.insertQuizQuestion(conn, quizId, questionId);
-
-            // Return new Question object with ID
-            return new Question(
-                questionId,
-                question.getText(),
-                question.getOptionA(),
-                question.getOptionB(),
-                question.getOptionC(),
-                question.getOptionD(),
-                question.getCorrectAnswer(),
-                question.getAssignedScore()
-            );
+            Question added = DatabaseManager.executeInTransaction(conn -> {
+                // Insert the MCQ
+                int questionId = InsertIntoDatabase.insertMcq(
+                    conn,
+                    question.getText(),
+                    question.getOptionA(),
+                    question.getOptionB(),
+                    question.getOptionC(),
+                    question.getOptionD(),
+                    question.getCorrectAnswer(),
+                    question.getAssignedScore()
+                );
+
+                // Link it to the quiz
+                InsertIntoDatabase.insertQuizQuestion(conn, quizId, questionId);
+                executeUpdate(conn, ServiceQueries.REFRESH_MAX_SCORE, questionId);
+
+                // Return new Question object with ID
+                return new Question(
+                    questionId,
+                    question.getText(),
+                    question.getOptionA(),
+                    question.getOptionB(),
+                    question.getOptionC(),
+                    question.getOptionD(),
+                    question.getCorrectAnswer(),
+                    question.getAssignedScore()
+                );
+            });
+            events.publish(new DomainEvent.QuestionChanged(added.getId(), new int[]{quizId}, DomainEvent.Change.CREATED));
+            return added;
         } catch (SQLException e) {
             System.err.println("Error adding question: " + e.getMessage());
             return question;
+        } finally {
+            invalidateQuiz(quizId);
         }
     }
 
     @Override
     public boolean updateQuestion(Question question) {
-        String sql = "UPDATE mcq SET question='" + question.getText() +
-                     "', optionA='" + question.getOptionA() +
-                     "', optionB='" + question.getOptionB() +
-                     "', optionC='" + question.getOptionC() +
-                     "', optionD='" + question.getOptionD() +
-                     "', correct_option='" + question.getCorrectAnswer() +
-                     "', assigned_score=" + question.getAssignedScore() +
-                     " WHERE id=" + question.getId();
-
-        try (Statement stmt = conn.createStatement()) {
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+        String sql = "UPDATE mcq SET question=?, optionA=?, optionB=?, optionC=?, optionD=?, " +
+                     "correct_option=?, assigned_score=? WHERE id=?";
+
+        List<Integer> quizIds = new ArrayList<>();
+        try {
+            boolean updated = DatabaseManager.executeInTransaction(conn -> {
+                int rowsAffected;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, question.getText());
+                    stmt.setString(2, question.getOptionA());
+                    stmt.setString(3, question.getOptionB());
+                    stmt.setString(4, question.getOptionC());
+                    stmt.setString(5, question.getOptionD());
+                    stmt.setString(6, String.valueOf(question.getCorrectAnswer()));
+                    stmt.setInt(7, question.getAssignedScore());
+                    stmt.setInt(8, question.getId());
+                    rowsAffected = stmt.executeUpdate();
+                }
+                // The assigned score may have changed
+                executeUpdate(conn, ServiceQueries.REFRESH_MAX_SCORE, question.getId());
+                quizIds.addAll(quizIdsOfQuestion(conn, question.getId()));
+                return rowsAffected > 0;
+            });
+            if (updated) {
+                events.publish(new DomainEvent.QuestionChanged(question.getId(), toArray(quizIds),
+                        DomainEvent.Change.UPDATED));
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating question: " + e.getMessage());
             return false;
+        } finally {
+            invalidateQuestion(question.getId(), quizIds);
         }
     }
 
     @Override
     public boolean deleteQuestion(int questionId) {
+        List<Integer> quizIds = new ArrayList<>();
         try {
-            // Delete from linking table first
-            String deleteLink = "DELETE FROM quizQuestion WHERE question_id=" + questionId;
-            String deleteQuestion = "DELETE FROM mcq WHERE id=" + questionId;
-
-            try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate(deleteLink);
-                int rowsAffected = stmt.executeUpdate(deleteQuestion);
+            String deleteQuestion = "DELETE FROM mcq WHERE id=?";
+
+            boolean deleted = DatabaseManager.executeInTransaction(conn -> {
+                // Delete the question, recompute its quizzes' max score while the links still
+                // identify them, then delete the links
+                int rowsAffected = executeUpdate(conn, deleteQuestion, questionId);
+                executeUpdate(conn, ServiceQueries.REFRESH_MAX_SCORE, questionId);
+                quizIds.addAll(quizIdsOfQuestion(conn, questionId));
+                executeUpdate(conn, ServiceQueries.DELETE_QUESTION_LINKS, questionId);
                 return rowsAffected > 0;
+            });
+            if (deleted) {
+                events.publish(new DomainEvent.QuestionChanged(questionId, toArray(quizIds),
+                        DomainEvent.Change.DELETED));
             }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting question: " + e.getMessage());
             return false;
+        } finally {
+            invalidateQuestion(questionId, quizIds);
         }
     }
 
     @Override
     public List<Question> getQuestionsByQuiz(int quizId) {
         List<Question> questions = new ArrayList<>();
-        String sql = "SELECT m.id, m.question, m.optionA, m.optionB, m.optionC, m.optionD, m.correct_option, m.assigned_score " +
-                     "FROM mcq m INNER JOIN quizQuestion qq ON m.id = qq.question_id WHERE qq.quiz_id=" + quizId;
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                questions.add(extractQuestionFromResultSet(rs));
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ServiceQueries.QUESTIONS_BY_QUIZ)) {
+            stmt.setInt(1, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    questions.add(extractQuestionFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting questions by quiz: " + e.getMessage());
@@ -301,27 +348,14 @@ public class DatabaseQuizService implements QuizService {
 
     @Override
     public List<Quiz> getAssignedQuizzes(int studentId) {
-        // Get quizzes from groups the student is enrolled in
-        List<Quiz> quizzes = new ArrayList<>();
-        String sql = "SELECT DISTINCT q.id, q.quiz_name, q.description, q.group_id, g.teacher_id " +
-                     "FROM quiz q " +
-                     "INNER JOIN groups g ON q.group_id = g.id " +
-                     "INNER JOIN enrollment e ON g.id = e.group_id " +
-                     "WHERE e.student_id=" + studentId;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Quiz quiz = extractQuizFromResultSet(rs);
-                quiz.setQuestions(getQuestionsByQuiz(quiz.getId()));
-                quizzes.add(quiz);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting assigned quizzes: " + e.getMessage());
+        // Get quizzes from groups the student is enrolled in; no query when there are none
+        int[] groupIds = enrollments.groupsOfStudent(studentId);
+        if (groupIds.length == 0) {
+            return new ArrayList<>();
         }
-
-        return quizzes;
+        return loadQuizzes(ServiceQueries.quizzesInGroups(groupIds.length),
+                ServiceQueries.quizIdsInGroups(groupIds.length),
+                "Error getting assigned quizzes: ", Arrays.stream(groupIds).boxed().toArray());
     }
 
     @Override
@@ -332,13 +366,15 @@ public class DatabaseQuizService implements QuizService {
                      "INNER JOIN enrollment e ON p.id = e.student_id " +
                      "INNER JOIN groups g ON e.group_id = g.id " +
                      "INNER JOIN quiz q ON g.id = q.group_id " +
-                     "WHERE q.id=" + quizId + " AND p.role='student'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                students.add(extractUserFromResultSet(rs));
+                     "WHERE q.id=? AND p.role='student'";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(extractUserFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting students assigned to quiz: " + e.getMessage());
@@ -349,34 +385,95 @@ public class DatabaseQuizService implements QuizService {
 
     @Override
     public boolean isQuizAssigned(int quizId, int studentId) {
-        String sql = "SELECT COUNT(*) as count " +
-                     "FROM enrollment e " +
-                     "INNER JOIN groups g ON e.group_id = g.id " +
-                     "INNER JOIN quiz q ON g.id = q.group_id " +
-                     "WHERE q.id=" + quizId + " AND e.student_id=" + studentId;
+        return enrollments.isQuizAssigned(quizId, studentId);
+    }
+
+    // ========== Summaries ==========
+
+    @Override
+    public Optional<QuizSummary> getQuizSummaryById(int quizId) {
+        QuizSummary cached = summariesById.get(quizId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long version = currentWriteVersion();
+        List<QuizSummary> summaries = loadSummaries(ServiceQueries.QUIZ_SUMMARY_BY_ID,
+                "Error getting quiz summary by ID: ", quizId);
+        Optional<QuizSummary> summary = summaries.stream().findFirst();
+        summary.ifPresent(found -> cacheSummary(found, version));
+        return summary;
+    }
+
+    @Override
+    public List<QuizSummary> getAllQuizSummaries() {
+        return loadSummaries(ServiceQueries.ALL_QUIZ_SUMMARIES, "Error getting quiz summaries: ");
+    }
+
+    @Override
+    public List<QuizSummary> getQuizSummariesByTeacher(int teacherId) {
+        return loadSummaries(ServiceQueries.QUIZ_SUMMARIES_BY_TEACHER,
+                "Error getting quiz summaries by teacher: ", teacherId);
+    }
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    @Override
+    public List<QuizSummary> getQuizSummariesByGroup(int groupId) {
+        return loadSummaries(ServiceQueries.QUIZ_SUMMARIES_BY_GROUP,
+                "Error getting quiz summaries by group: ", groupId);
+    }
+
+    @Override
+    public List<QuizSummary> getAssignedQuizSummaries(int studentId) {
+        return loadSummaries(ServiceQueries.ASSIGNED_QUIZ_SUMMARIES,
+                "Error getting assigned quiz summaries: ", studentId);
+    }
 
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
+    @Override
+    public List<StudentQuizSnapshot> getAssignedQuizSnapshots(int studentId) {
+        List<StudentQuizSnapshot> snapshots = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ServiceQueries.ASSIGNED_QUIZ_SNAPSHOTS)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String teacherName = rs.getString("teacher_name");
+                    // NULL best score: no attempts yet
+                    Integer bestScore = rs.getInt("best_score");
+                    if (rs.wasNull()) {
+                        bestScore = null;
+                    }
+                    snapshots.add(new StudentQuizSnapshot(
+                            rs.getInt("id"),
+                            rs.getString("quiz_name"),
+                            rs.getString("description"),
+                            rs.getInt("group_id"),
+                            rs.getInt("teacher_id"),
+                            teacherName == null ? null : teacherName + " " + rs.getString("teacher_lastname"),
+                            rs.getInt("question_count"),
+                            rs.getInt("max_score"),
+                            rs.getInt("attempt_count"),
+                            bestScore));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error checking quiz assignment: " + e.getMessage());
+            System.err.println("Error getting assigned quiz snapshots: " + e.getMessage());
         }
 
-        return false;
+        return snapshots;
     }
 
     @Override
     public int getTotalQuizCount() {
         String sql = "SELECT COUNT(*) as count FROM quiz";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting total quiz count: " + e.getMessage());
@@ -392,6 +489,163 @@ public class DatabaseQuizService implements QuizService {
     }
 
     // Helper methods
+    // ========== Quiz cache ==========
+
+    private synchronized long currentWriteVersion() {
+        return writeVersion;
+    }
+
+    // Cache a copy of a freshly read quiz, unless a write happened since the read started
+    private synchronized void cacheQuiz(Quiz quiz, long versionAtRead) {
+        if (versionAtRead == writeVersion) {
+            quizzesById.put(quiz.getId(), quiz.copy());
+        }
+    }
+
+    private synchronized void cacheSummary(QuizSummary summary, long versionAtRead) {
+        if (versionAtRead == writeVersion) {
+            summariesById.put(summary.getId(), summary);
+        }
+    }
+
+    private synchronized void invalidateQuiz(int quizId) {
+        writeVersion++;
+        quizzesById.invalidate(quizId);
+        summariesById.invalidate(quizId);
+    }
+
+    // A question can be linked to several quizzes; drop every cached quiz that holds it, and the
+    // summaries of the quizzes the write found it in (their question count and max score)
+    private synchronized void invalidateQuestion(int questionId, List<Integer> quizIds) {
+        writeVersion++;
+        quizzesById.invalidateIf(quiz -> quiz.getQuestions().stream().anyMatch(q -> q.getId() == questionId));
+        for (int quizId : quizIds) {
+            summariesById.invalidate(quizId);
+        }
+    }
+
+    // Drop cached quizzes that another service's write made stale (teacher renamed, group moved)
+    private synchronized void invalidateTeacher(int teacherId) {
+        writeVersion++;
+        quizzesById.invalidateIf(quiz -> quiz.getTeacherId() == teacherId);
+        summariesById.invalidateIf(summary -> summary.getTeacherId() == teacherId);
+    }
+
+    private synchronized void invalidateGroup(int groupId) {
+        writeVersion++;
+        quizzesById.invalidateIf(quiz -> quiz.getGroupId() == groupId);
+        summariesById.invalidateIf(summary -> summary.getGroupId() == groupId);
+    }
+
+    public String getCacheStats() {
+        return quizzesById + System.lineSeparator() + summariesById;
+    }
+
+    private List<Integer> quizIdsOfQuestion(Connection conn, int questionId) throws SQLException {
+        List<Integer> quizIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT quiz_id FROM quizQuestion WHERE question_id=?")) {
+            stmt.setInt(1, questionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    quizIds.add(rs.getInt("quiz_id"));
+                }
+            }
+        }
+        return quizIds;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int executeUpdate(Connection conn, String sql, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Load quizzes together with their teacher names and questions in two queries:
+     * one for the quizzes, one for the questions of all of them.
+     * @param quizSql ServiceQueries.QUIZ_SELECT plus a filter
+     * @param quizIdsSql ids of the same quizzes (same parameters), or null for every quiz
+     */
+    private List<Quiz> loadQuizzes(String quizSql, String quizIdsSql, String errorMessage, Object... params) {
+        List<Quiz> quizzes = new ArrayList<>();
+        Map<Integer, Quiz> quizzesById = new HashMap<>();
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(quizSql)) {
+                bindParameters(stmt, params);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Quiz quiz = extractQuizFromResultSet(rs);
+                        quiz.setQuestions(new ArrayList<>());
+                        quizzes.add(quiz);
+                        quizzesById.put(quiz.getId(), quiz);
+                    }
+                }
+            }
+            if (quizzes.isEmpty()) {
+                return quizzes;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(ServiceQueries.questionsOfQuizzes(quizIdsSql))) {
+                if (quizIdsSql != null) {
+                    bindParameters(stmt, params);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Quiz quiz = quizzesById.get(rs.getInt("quiz_id"));
+                        // A quiz created between the two queries is simply not in the map
+                        if (quiz != null) {
+                            quiz.getQuestions().add(extractQuestionFromResultSet(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(errorMessage + e.getMessage());
+        }
+
+        return quizzes;
+    }
+
+    // One query; no question rows are loaded
+    private List<QuizSummary> loadSummaries(String sql, String errorMessage, Object... params) {
+        List<QuizSummary> summaries = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String teacherName = rs.getString("teacher_name");
+                    summaries.add(new QuizSummary(
+                            rs.getInt("id"),
+                            rs.getString("quiz_name"),
+                            rs.getString("description"),
+                            rs.getInt("group_id"),
+                            rs.getInt("teacher_id"),
+                            teacherName == null ? null : teacherName + " " + rs.getString("teacher_lastname"),
+                            rs.getInt("question_count"),
+                            rs.getInt("max_score")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(errorMessage + e.getMessage());
+        }
+
+        return summaries;
+    }
+
+    private void bindParameters(PreparedStatement stmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+    }
+
     private Quiz extractQuizFromResultSet(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String title = rs.getString("quiz_name");
@@ -402,10 +656,13 @@ public class DatabaseQuizService implements QuizService {
         Quiz quiz = new Quiz(id, title, description, teacherId);
         // Ensure the quiz object knows which group it belongs to
         quiz.setGroupId(groupId);
+        quiz.setMaxScore(rs.getInt("max_score"));
 
-        // Get teacher name if available
-        Optional<User> teacher = userService.getUserById(teacherId);
-        teacher.ifPresent(t -> quiz.setTeacherName(t.getFirstName() + " " + t.getLastName()));
+        // Teacher name comes from the join; null when the group has no teacher
+        String teacherName = rs.getString("teacher_name");
+        if (teacherName != null) {
+            quiz.setTeacherName(teacherName + " " + rs.getString("teacher_lastname"));
+        }
 
         return quiz;
     }
@@ -414,18 +671,25 @@ public class DatabaseQuizService implements QuizService {
     public boolean addQuestionToQuiz(int quizId, String question, String optionA, String optionB,
                                      String optionC, String optionD, char correctOption, int score) {
         try {
-            // Insert the MCQ
-            int questionId = InsertIntoDatabase.insertMcq(
-                conn, question, optionA, optionB, optionC, optionD, correctOption, score
-            );
-
-            // Link question to quiz
-            InsertIntoDatabase.insertQuizQuestion(conn, quizId, questionId);
-
+            int questionId = DatabaseManager.executeInTransaction(conn -> {
+                // Insert the MCQ
+                int newId = InsertIntoDatabase.insertMcq(
+                    conn, question, optionA, optionB, optionC, optionD, correctOption, score
+                );
+
+                // Link question to quiz
+                InsertIntoDatabase.insertQuizQuestion(conn, quizId, newId);
+                executeUpdate(conn, ServiceQueries.REFRESH_MAX_SCORE, newId);
+
+                return newId;
+            });
+            events.publish(new DomainEvent.QuestionChanged(questionId, new int[]{quizId}, DomainEvent.Change.CREATED));
             return true;
         } catch (SQLException e) {
             System.err.println("Error adding question to quiz: " + e.getMessage());
             return false;
+        } finally {
+            invalidateQuiz(quizId);
         }
     }
 
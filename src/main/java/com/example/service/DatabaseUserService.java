@@ -1,29 +1,50 @@
 package com.example.service;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import com.example.database.DatabaseManager;
 import com.example.database.InsertIntoDatabase;
+import com.example.database.ServiceQueries;
 import com.example.model.User;
 
 /**
  * Real implementation of UserService using SQLite database.
+ *
+ * Single-user lookups (by id and by email) go through a small identity map, since the same
+ * teachers and students are looked up again and again while building tables. Every write
+ * through this service invalidates the affected user. Callers always get their own copy,
+ * so changing a returned User never changes the cache.
+ *
+ * Publishes a UserChanged event after each successful write.
  */
 public class DatabaseUserService implements UserService {
 
-    private final Connection conn;
+    private static final int USER_CACHE_SIZE = Integer.getInteger("quiz.cache.users", 1000);
+
+    private final BoundedCache<Integer, User> usersById = new BoundedCache<>("UserCache.byId", USER_CACHE_SIZE);
+    private final BoundedCache<String, User> usersByEmail = new BoundedCache<>("UserCache.byEmail", USER_CACHE_SIZE);
+    // Bumped by every write; a lookup that started before a write must not cache what it read
+    private long writeVersion;
+
+    private final DomainEventBus events = DomainEventBus.getInstance();
+    private final DomainEventBus.Subscription subscription;
 
     public DatabaseUserService() {
-        this.conn = DatabaseManager.connectWithDatabase();
-        if (conn == null) {
-            throw new RuntimeException("Failed to connect to database");
-        }
+        // Subscribed before any view, so a view reloading on the event never gets a stale user
+        subscription = events.subscribe(DomainEvent.UserChanged.class, e -> invalidateUser(e.getUserId(), null));
+    }
+
+    /**
+     * Stop listening for events; call when this service is replaced (ServiceLocator.reset()).
+     */
+    public void close() {
+        subscription.cancel();
     }
 
     @Override
@@ -31,11 +52,12 @@ public class DatabaseUserService implements UserService {
         List<User> users = new ArrayList<>();
         String sql = "SELECT id, name, lastname, email, password, role FROM people";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(extractUserFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting all users: " + e.getMessage());
@@ -48,13 +70,15 @@ public class DatabaseUserService implements UserService {
     public List<User> getUsersByRole(User.Role role) {
         List<User> users = new ArrayList<>();
         String roleStr = role.toString().toLowerCase();
-        String sql = "SELECT id, name, lastname, email, password, role FROM people WHERE role='" + roleStr + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+        String sql = ServiceQueries.USERS_BY_ROLE;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, roleStr);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(extractUserFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting users by role: " + e.getMessage());
@@ -65,13 +89,23 @@ public class DatabaseUserService implements UserService {
 
     @Override
     public Optional<User> getUserById(int id) {
-        String sql = "SELECT id, name, lastname, email, password, role FROM people WHERE id=" + id;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        User cached = usersById.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
 
-            if (rs.next()) {
-                return Optional.of(extractUserFromResultSet(rs));
+        long version = currentWriteVersion();
+        String sql = "SELECT id, name, lastname, email, password, role FROM people WHERE id=?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    User user = extractUserFromResultSet(rs);
+                    cacheUser(user, version);
+                    return Optional.of(user);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting user by ID: " + e.getMessage());
@@ -82,13 +116,23 @@ public class DatabaseUserService implements UserService {
 
     @Override
     public Optional<User> getUserByEmail(String email) {
-        String sql = "SELECT id, name, lastname, email, password, role FROM people WHERE email='" + email + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        User cached = usersByEmail.get(email);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
 
-            if (rs.next()) {
-                return Optional.of(extractUserFromResultSet(rs));
+        long version = currentWriteVersion();
+        String sql = ServiceQueries.USER_BY_EMAIL;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, email);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    User user = extractUserFromResultSet(rs);
+                    cacheUser(user, version);
+                    return Optional.of(user);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting user by email: " + e.getMessage());
@@ -101,13 +145,18 @@ public class DatabaseUserService implements UserService {
     public List<User> searchUsers(String query) {
         List<User> users = new ArrayList<>();
         String sql = "SELECT id, name, lastname, email, password, role FROM people " +
-                     "WHERE name LIKE '%" + query + "%' OR lastname LIKE '%" + query + "%' OR email LIKE '%" + query + "%'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+                     "WHERE name LIKE ? OR lastname LIKE ? OR email LIKE ?";
+        String pattern = "%" + query + "%";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setString(3, pattern);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(extractUserFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error searching users: " + e.getMessage());
@@ -119,19 +168,24 @@ public class DatabaseUserService implements UserService {
     @Override
     public User createUser(User user) {
         try {
-            String roleStr = user.getRole().toString().toLowerCase();
-            int userId = InsertIntoDatabase.insertPeople(
-                conn,
-                user.getFirstName(),
-                user.getLastName(),
-                user.getEmail(),
-                user.getPassword(),
-                roleStr
-            );
-
-            // Return user with the generated ID
-            return User.createUser(userId, user.getEmail(), user.getPassword(),
-                    user.getFirstName(), user.getLastName(), user.getRole());
+            User created = DatabaseManager.executeWrite(conn -> {
+                String roleStr = user.getRole().toString().toLowerCase();
+                int userId = InsertIntoDatabase.insertPeople(
+                    conn,
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getEmail(),
+                    user.getPassword(),
+                    roleStr
+                );
+
+                // Return user with the generated ID
+                return User.createUser(userId, user.getEmail(), user.getPassword(),
+                        user.getFirstName(), user.getLastName(), user.getRole());
+            });
+            invalidateUser(created.getId(), created.getEmail());
+            events.publish(new DomainEvent.UserChanged(created.getId(), DomainEvent.Change.CREATED));
+            return created;
         } catch (SQLException e) {
             System.err.println("Error creating user: " + e.getMessage());
             return user;
@@ -141,29 +195,37 @@ public class DatabaseUserService implements UserService {
     @Override
     public boolean updateUser(User user) {
         // Protect admin user from being modified and ignore any role changes coming from UI
-        try (Statement stmt = conn.createStatement()) {
-            // Check current role in DB
-            String roleQuery = "SELECT role FROM people WHERE id=" + user.getId();
-            ResultSet rs = stmt.executeQuery(roleQuery);
-            if (rs.next()) {
-                String currentRole = rs.getString("role");
+        try {
+            boolean updated = DatabaseManager.executeWrite(conn -> {
+                // Check current role in DB
+                String currentRole = getRole(conn, user.getId());
                 if (currentRole != null && currentRole.equalsIgnoreCase("admin")) {
                     // Do not allow modifying admin user
                     System.out.println("Attempt to modify admin user blocked.");
                     return false;
                 }
-            }
 
-            // Only update mutable fields; do NOT change role here
-            String sql = "UPDATE people SET name='" + user.getFirstName() + "', lastname='" + user.getLastName() +
-                         "', email='" + user.getEmail() + "', password='" + user.getPassword() +
-                         "' WHERE id=" + user.getId();
-
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+                // Only update mutable fields; do NOT change role here
+                String sql = "UPDATE people SET name=?, lastname=?, email=?, password=? WHERE id=?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, user.getFirstName());
+                    stmt.setString(2, user.getLastName());
+                    stmt.setString(3, user.getEmail());
+                    stmt.setString(4, user.getPassword());
+                    stmt.setInt(5, user.getId());
+                    int rowsAffected = stmt.executeUpdate();
+                    return rowsAffected > 0;
+                }
+            });
+            if (updated) {
+                events.publish(new DomainEvent.UserChanged(user.getId(), DomainEvent.Change.UPDATED));
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating user: " + e.getMessage());
             return false;
+        } finally {
+            invalidateUser(user.getId(), user.getEmail());
         }
     }
 
@@ -171,49 +233,62 @@ public class DatabaseUserService implements UserService {
     public boolean deleteUser(int id) {
         // Only remove enrollments for students. Do not delete groups when a teacher is removed —
         // group reassignment should be handled by the admin UI before deleting a teacher.
-        try (Statement stmt = conn.createStatement()) {
-            // Determine the role of the user (if exists)
-            String roleQuery = "SELECT role FROM people WHERE id=" + id;
-            ResultSet rs = stmt.executeQuery(roleQuery);
-            String role = null;
-            if (rs.next()) {
-                role = rs.getString("role");
-            }
+        try {
+            boolean deleted = DatabaseManager.executeWrite(conn -> {
+                // Determine the role of the user (if exists)
+                String role = getRole(conn, id);
 
-            // Prevent deleting admin user
-            if (role != null && role.equalsIgnoreCase("admin")) {
-                System.out.println("Attempt to delete admin user blocked.");
-                return false;
-            }
+                // Prevent deleting admin user
+                if (role != null && role.equalsIgnoreCase("admin")) {
+                    System.out.println("Attempt to delete admin user blocked.");
+                    return false;
+                }
 
-            // If student: remove enrollments
-            if (role != null && role.equalsIgnoreCase("student")) {
-                String deleteEnrollments = "DELETE FROM enrollment WHERE student_id=" + id;
-                stmt.executeUpdate(deleteEnrollments);
-            }
+                // If student: remove enrollments
+                if (role != null && role.equalsIgnoreCase("student")) {
+                    String deleteEnrollments = "DELETE FROM enrollment WHERE student_id=?";
+                    try (PreparedStatement stmt = conn.prepareStatement(deleteEnrollments)) {
+                        stmt.setInt(1, id);
+                        stmt.executeUpdate();
+                    }
+                }
 
-            // Do NOT delete groups for teachers here. Admin must reassign groups first.
+                // Do NOT delete groups for teachers here. Admin must reassign groups first.
 
-            // Finally delete the user record
-            String sql = "DELETE FROM people WHERE id=" + id;
-            int rowsAffected = stmt.executeUpdate(sql);
-            return rowsAffected > 0;
+                // Finally delete the user record
+                String sql = "DELETE FROM people WHERE id=?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    int rowsAffected = stmt.executeUpdate();
+                    return rowsAffected > 0;
+                }
+            });
+            if (deleted) {
+                EnrollmentIndex.getInstance().studentDeleted(id);
+                // Also covers the student's enrollments deleted above
+                events.publish(new DomainEvent.UserChanged(id, DomainEvent.Change.DELETED));
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
             return false;
+        } finally {
+            invalidateUser(id, null);
         }
     }
 
     @Override
     public int countUsersByRole(User.Role role) {
         String roleStr = role.toString().toLowerCase();
-        String sql = "SELECT COUNT(*) as count FROM people WHERE role='" + roleStr + "'";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
+        String sql = ServiceQueries.COUNT_USERS_BY_ROLE;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, roleStr);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error counting users by role: " + e.getMessage());
@@ -226,11 +301,12 @@ public class DatabaseUserService implements UserService {
     public int getTotalUserCount() {
         String sql = "SELECT COUNT(*) as count FROM people";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting total user count: " + e.getMessage());
@@ -239,6 +315,54 @@ public class DatabaseUserService implements UserService {
         return 0;
     }
 
+    // ========== User cache ==========
+
+    private synchronized long currentWriteVersion() {
+        return writeVersion;
+    }
+
+    // Cache a copy of a freshly read user, unless a write happened since the read started
+    private synchronized void cacheUser(User user, long versionAtRead) {
+        if (versionAtRead != writeVersion) {
+            return;
+        }
+        User copy = copyOf(user);
+        usersById.put(copy.getId(), copy);
+        usersByEmail.put(copy.getEmail(), copy);
+    }
+
+    /**
+     * Drop a user from both maps after a write. The old email entry is found by id,
+     * a new email by name. Bumping the version stops in-flight lookups from caching the old row.
+     */
+    private synchronized void invalidateUser(int id, String email) {
+        writeVersion++;
+        usersById.invalidate(id);
+        usersByEmail.invalidateIf(u -> u.getId() == id);
+        if (email != null) {
+            usersByEmail.invalidate(email);
+        }
+    }
+
+    private User copyOf(User user) {
+        return User.createUser(user.getId(), user.getEmail(), user.getPassword(),
+                user.getFirstName(), user.getLastName(), user.getRole());
+    }
+
+    public String getCacheStats() {
+        return usersById + ", " + usersByEmail;
+    }
+
+    // Helper method to read a user's role (null if the user does not exist)
+    private String getRole(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT role FROM people WHERE id=?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("role") : null;
+            }
+        }
+    }
+
     // Helper method to extract User from ResultSet
     private User extractUserFromResultSet(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
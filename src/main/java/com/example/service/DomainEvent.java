@@ -0,0 +1,196 @@
+package com.example.service;
+
+import java.util.Arrays;
+
+/**
+ * Something that changed in the database, published by the services on the
+ * {@link DomainEventBus} after the change has been committed.
+ *
+ * Events only carry ids; subscribers reload what they show for those ids.
+ */
+public interface DomainEvent {
+
+    enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * A quiz attempt was saved (directly or through the AttemptSubmissionQueue).
+     */
+    final class AttemptSaved implements DomainEvent {
+        private final int attemptId;
+        private final int quizId;
+        private final int studentId;
+
+        public AttemptSaved(int attemptId, int quizId, int studentId) {
+            this.attemptId = attemptId;
+            this.quizId = quizId;
+            this.studentId = studentId;
+        }
+
+        public int getAttemptId() {
+            return attemptId;
+        }
+
+        public int getQuizId() {
+            return quizId;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        @Override
+        public String toString() {
+            return "AttemptSaved{attempt=" + attemptId + ", quiz=" + quizId + ", student=" + studentId + "}";
+        }
+    }
+
+    /**
+     * A quiz row was created, renamed or deleted (its questions: see QuestionChanged).
+     */
+    final class QuizChanged implements DomainEvent {
+        private final int quizId;
+        private final Change change;
+
+        public QuizChanged(int quizId, Change change) {
+            this.quizId = quizId;
+            this.change = change;
+        }
+
+        public int getQuizId() {
+            return quizId;
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        @Override
+        public String toString() {
+            return "QuizChanged{quiz=" + quizId + ", " + change + "}";
+        }
+    }
+
+    /**
+     * A question was added, edited or deleted; quizIds are the quizzes it belongs (or belonged) to.
+     */
+    final class QuestionChanged implements DomainEvent {
+        private final int questionId;
+        private final int[] quizIds;
+        private final Change change;
+
+        public QuestionChanged(int questionId, int[] quizIds, Change change) {
+            this.questionId = questionId;
+            this.quizIds = quizIds.clone();
+            this.change = change;
+        }
+
+        public int getQuestionId() {
+            return questionId;
+        }
+
+        public int[] getQuizIds() {
+            return quizIds.clone();
+        }
+
+        public boolean affectsQuiz(int quizId) {
+            return Arrays.stream(quizIds).anyMatch(id -> id == quizId);
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        @Override
+        public String toString() {
+            return "QuestionChanged{question=" + questionId + ", quizzes=" + Arrays.toString(quizIds) + ", " + change + "}";
+        }
+    }
+
+    /**
+     * A student joined or left a group.
+     */
+    final class EnrollmentChanged implements DomainEvent {
+        private final int groupId;
+        private final int studentId;
+        private final boolean enrolled;
+
+        public EnrollmentChanged(int groupId, int studentId, boolean enrolled) {
+            this.groupId = groupId;
+            this.studentId = studentId;
+            this.enrolled = enrolled;
+        }
+
+        public int getGroupId() {
+            return groupId;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        // false: the student was removed
+        public boolean isEnrolled() {
+            return enrolled;
+        }
+
+        @Override
+        public String toString() {
+            return "EnrollmentChanged{group=" + groupId + ", student=" + studentId + ", enrolled=" + enrolled + "}";
+        }
+    }
+
+    /**
+     * A group was created, renamed, moved to another teacher or deleted. Deleting a group also
+     * deletes its enrollments and quizzes; no separate events are published for those.
+     */
+    final class GroupChanged implements DomainEvent {
+        private final int groupId;
+        private final Change change;
+
+        public GroupChanged(int groupId, Change change) {
+            this.groupId = groupId;
+            this.change = change;
+        }
+
+        public int getGroupId() {
+            return groupId;
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        @Override
+        public String toString() {
+            return "GroupChanged{group=" + groupId + ", " + change + "}";
+        }
+    }
+
+    /**
+     * A user was created (including registration), edited or deleted.
+     */
+    final class UserChanged implements DomainEvent {
+        private final int userId;
+        private final Change change;
+
+        public UserChanged(int userId, Change change) {
+            this.userId = userId;
+            this.change = change;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        @Override
+        public String toString() {
+            return "UserChanged{user=" + userId + ", " + change + "}";
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.service;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for {@link DomainEvent}s, so caches and open dashboards can
+ * update just what a write changed instead of reloading everything.
+ *
+ * The services publish after each committed write. Events are delivered asynchronously, in
+ * publish order, on one daemon thread: publishing never waits for subscribers, and a slow
+ * subscriber delays the others, so subscribers should hand real work to ServiceExecutors and
+ * UI updates to Platform.runLater. An exception in one subscriber is logged and does not stop
+ * delivery to the rest.
+ *
+ * Subscribers get each event in the order they subscribed. The service caches subscribe at
+ * startup, so they are invalidated before any view that reloads on the same event.
+ */
+public final class DomainEventBus {
+
+    private static final DomainEventBus INSTANCE = new DomainEventBus();
+
+    /**
+     * Handle returned by subscribe; cancel it when the subscriber goes away (e.g. its view closes).
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final CopyOnWriteArrayList<Listener<?>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "domain-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Counters
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private DomainEventBus() {
+    }
+
+    public static DomainEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Call the listener for every later event of the given type (and its subtypes).
+     */
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+        Listener<E> entry = new Listener<>(type, listener);
+        listeners.add(entry);
+        return () -> listeners.remove(entry);
+    }
+
+    /**
+     * Queue the event for delivery and return at once. Ignored after shutdown.
+     */
+    public void publish(DomainEvent event) {
+        try {
+            dispatcher.execute(() -> deliver(event));
+            published.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            // Shutting down; nobody is left to refresh
+        }
+    }
+
+    private void deliver(DomainEvent event) {
+        for (Listener<?> listener : listeners) {
+            try {
+                if (listener.accept(event)) {
+                    delivered.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                System.err.println("Error handling " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deliver the events already published, then stop.
+     */
+    public void shutdown() {
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(5, TimeUnit.SECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DomainEventBus{subscribers=%d, published=%d, delivered=%d, failed=%d}",
+                listeners.size(), published.get(), delivered.get(), failed.get());
+    }
+
+    private static final class Listener<E extends DomainEvent> {
+        private final Class<E> type;
+        private final Consumer<? super E> consumer;
+
+        private Listener(Class<E> type, Consumer<? super E> consumer) {
+            this.type = type;
+            this.consumer = consumer;
+        }
+
+        // Returns whether the event was for this listener
+        private boolean accept(DomainEvent event) {
+            if (!type.isInstance(event)) {
+                return false;
+            }
+            consumer.accept(type.cast(event));
+            return true;
+        }
+    }
+}
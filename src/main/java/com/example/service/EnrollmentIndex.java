@@ -0,0 +1,223 @@
+package com.example.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.database.DatabaseManager;
+import com.example.model.IntBitmap;
+
+/**
+ * In-memory copy of the enrollment table: the student ids of each group as an IntBitmap,
+ * plus the group of each quiz. Membership checks ("is this student in the group", "is this
+ * quiz assigned to the student") and set queries ("students in any of my groups") then need
+ * no query at all.
+ *
+ * Loaded on first use (two queries), then kept current by the services after each committed
+ * write: enrollStudent, removeStudent and deleteGroup in DatabaseGroupService, deleteUser in
+ * DatabaseUserService, createQuiz and deleteQuiz in DatabaseQuizService. Rows written around
+ * the services after the load (e.g. straight through InsertIntoDatabase) are only seen after
+ * reload().
+ *
+ * A bitmap is copied before each change and never modified once stored, so reads take no lock
+ * and never see a half-made change.
+ */
+public final class EnrollmentIndex {
+
+    private static final EnrollmentIndex INSTANCE = new EnrollmentIndex();
+
+    private final Map<Integer, IntBitmap> studentsByGroup = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> groupByQuiz = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private EnrollmentIndex() {
+    }
+
+    public static EnrollmentIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // ========== Queries ==========
+
+    public boolean isEnrolled(int groupId, int studentId) {
+        ensureLoaded();
+        IntBitmap students = studentsByGroup.get(groupId);
+        return students != null && students.contains(studentId);
+    }
+
+    /**
+     * Whether the student is enrolled in the quiz's group.
+     */
+    public boolean isQuizAssigned(int quizId, int studentId) {
+        ensureLoaded();
+        Integer groupId = groupByQuiz.get(quizId);
+        return groupId != null && isEnrolled(groupId, studentId);
+    }
+
+    /**
+     * Ids of the groups the student is enrolled in, ascending. Checks every group's bitmap,
+     * which is cheap for the few hundred groups a school has.
+     */
+    public int[] groupsOfStudent(int studentId) {
+        ensureLoaded();
+        return studentsByGroup.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(studentId))
+                .mapToInt(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Students enrolled in at least one of the groups (a new bitmap the caller may change).
+     */
+    public IntBitmap studentsInAnyGroup(int... groupIds) {
+        ensureLoaded();
+        IntBitmap union = new IntBitmap();
+        for (int groupId : groupIds) {
+            IntBitmap students = studentsByGroup.get(groupId);
+            if (students != null) {
+                union = union.or(students);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Students enrolled in every one of the groups (a new bitmap the caller may change).
+     */
+    public IntBitmap studentsInAllGroups(int... groupIds) {
+        ensureLoaded();
+        if (groupIds.length == 0) {
+            return new IntBitmap();
+        }
+        IntBitmap intersection = null;
+        for (int groupId : groupIds) {
+            IntBitmap students = studentsByGroup.get(groupId);
+            if (students == null) {
+                return new IntBitmap();
+            }
+            intersection = intersection == null ? students.copy() : intersection.and(students);
+        }
+        return intersection;
+    }
+
+    // ========== Updates, after the write has committed ==========
+
+    public synchronized void enrolled(int groupId, int studentId) {
+        if (loaded) {
+            studentsByGroup.compute(groupId, (id, students) -> {
+                IntBitmap updated = students == null ? new IntBitmap() : students.copy();
+                updated.add(studentId);
+                return updated;
+            });
+        }
+    }
+
+    public synchronized void unenrolled(int groupId, int studentId) {
+        if (loaded) {
+            studentsByGroup.computeIfPresent(groupId, (id, students) -> {
+                IntBitmap updated = students.copy();
+                updated.remove(studentId);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * The group's enrollments and quizzes were deleted with it.
+     */
+    public synchronized void groupDeleted(int groupId) {
+        if (loaded) {
+            studentsByGroup.remove(groupId);
+            groupByQuiz.values().removeIf(id -> id == groupId);
+        }
+    }
+
+    /**
+     * A deleted student leaves every group.
+     */
+    public synchronized void studentDeleted(int studentId) {
+        if (loaded) {
+            for (int groupId : groupsOfStudent(studentId)) {
+                unenrolled(groupId, studentId);
+            }
+        }
+    }
+
+    public synchronized void quizCreated(int quizId, int groupId) {
+        if (loaded) {
+            groupByQuiz.put(quizId, groupId);
+        }
+    }
+
+    public synchronized void quizDeleted(int quizId) {
+        if (loaded) {
+            groupByQuiz.remove(quizId);
+        }
+    }
+
+    /**
+     * Forget the index; it is loaded again from the database on next use.
+     */
+    public synchronized void reload() {
+        loaded = false;
+    }
+
+    // ========== Loading ==========
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    // Updates wait for the load (same lock) and are applied on top; they are idempotent, so
+    // a write the load already saw is harmless. On error nothing is loaded and the next use retries.
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        // Built aside, so no reader sees a bitmap while it is being filled
+        Map<Integer, IntBitmap> students = new HashMap<>();
+        Map<Integer, Integer> quizzes = new HashMap<>();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT group_id, student_id FROM enrollment");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    students.computeIfAbsent(rs.getInt("group_id"), id -> new IntBitmap())
+                            .add(rs.getInt("student_id"));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT id, group_id FROM quiz");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    quizzes.put(rs.getInt("id"), rs.getInt("group_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading enrollment index: " + e.getMessage());
+            return;
+        }
+        studentsByGroup.clear();
+        studentsByGroup.putAll(students);
+        groupByQuiz.clear();
+        groupByQuiz.putAll(quizzes);
+        loaded = true;
+    }
+
+    @Override
+    public String toString() {
+        int enrollments = 0;
+        long bytes = 0;
+        for (IntBitmap students : studentsByGroup.values()) {
+            enrollments += students.cardinality();
+            bytes += students.sizeInBytes();
+        }
+        return "EnrollmentIndex{loaded=" + loaded + ", groups=" + studentsByGroup.size()
+                + ", enrollments=" + enrollments + ", quizzes=" + groupByQuiz.size() + ", bitmapBytes=" + bytes + "}";
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.example.model.Group;
+import com.example.model.IntBitmap;
 import com.example.model.User;
 
 /**
@@ -72,6 +73,16 @@ public interface GroupService {
      */
     boolean isStudentEnrolled(int groupId, int studentId);
 
+    /**
+     * Ids of the students enrolled in at least one of the groups, e.g. all of a teacher's students.
+     */
+    IntBitmap getStudentIdsInAnyGroup(int... groupIds);
+
+    /**
+     * Ids of the students enrolled in every one of the groups.
+     */
+    IntBitmap getStudentIdsInAllGroups(int... groupIds);
+
     /**
      * Reassign all groups that belong to one teacher to another teacher.
      * Returns true if the reassignment succeeded (or there were no groups to reassign).
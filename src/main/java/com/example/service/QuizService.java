@@ -1,11 +1,14 @@
 package com.example.service;
 
 import com.example.model.Quiz;
+import com.example.model.QuizSummary;
+import com.example.model.StudentQuizSnapshot;
 import com.example.model.User;
 import com.example.quizlogic.Question;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Service interface for quiz operations.
@@ -111,6 +114,49 @@ public interface QuizService {
      */
     boolean isQuizAssigned(int quizId, int studentId);
     
+    // ========== Summaries (list views) ==========
+
+    /**
+     * Get a quiz without its questions. Use for titles and score totals.
+     */
+    default Optional<QuizSummary> getQuizSummaryById(int quizId) {
+        return getQuizById(quizId).map(QuizSummary::of);
+    }
+
+    /**
+     * Get summaries of all quizzes.
+     */
+    default List<QuizSummary> getAllQuizSummaries() {
+        return getAllQuizzes().stream().map(QuizSummary::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Get summaries of quizzes created by a teacher.
+     */
+    default List<QuizSummary> getQuizSummariesByTeacher(int teacherId) {
+        return getQuizzesByTeacher(teacherId).stream().map(QuizSummary::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Get summaries of quizzes in a group.
+     */
+    default List<QuizSummary> getQuizSummariesByGroup(int groupId) {
+        return getQuizzesByGroup(groupId).stream().map(QuizSummary::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Get summaries of quizzes assigned to a student.
+     */
+    default List<QuizSummary> getAssignedQuizSummaries(int studentId) {
+        return getAssignedQuizzes(studentId).stream().map(QuizSummary::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Get summaries of quizzes assigned to a student, each with the student's attempt count
+     * and best score. Everything the student dashboard shows per quiz, in one call.
+     */
+    List<StudentQuizSnapshot> getAssignedQuizSnapshots(int studentId);
+
     // ========== Statistics ==========
     
     /**
@@ -0,0 +1,113 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Read caches of the caching service decorators (CachingQuizService and friends), which
+ * ServiceLocator puts in front of the services named in -Dquiz.cache.services.
+ *
+ * Each decorator registers, per DomainEvent type, which of its entries the event makes stale
+ * (e.g. an AttemptSaved drops that student's snapshots and that quiz's statistics), and
+ * everything else stays cached. Every published event is passed to them, which covers writes
+ * that bypass the decorators (the AttemptSubmissionQueue, registrations) and runs before any
+ * view reloading on the same event. A write through a decorator passes its event at once
+ * as well, so the caller's next read is fresh without waiting for the bus. Hit/miss counters
+ * and the number of changes are printed at shutdown with -Dquiz.stats=true.
+ */
+public class ServiceCaches {
+
+    private final List<BoundedCache<?, ?>> caches = new ArrayList<>();
+    private final List<Consumer<DomainEvent>> invalidators = new ArrayList<>();
+    // Bumped by every change; a load that started before a change must not cache what it read
+    private long writeVersion;
+    private final DomainEventBus.Subscription subscription;
+
+    public ServiceCaches() {
+        subscription = DomainEventBus.getInstance().subscribe(DomainEvent.class, this::changed);
+    }
+
+    /**
+     * Stop listening for events; call when the decorators are replaced (ServiceLocator.reset()).
+     */
+    public void close() {
+        subscription.cancel();
+    }
+
+    /**
+     * A new cache cleared with the others; size 0 keeps nothing (caching off for that service).
+     */
+    public synchronized <K, V> BoundedCache<K, V> newCache(String name, int maxSize) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maxSize);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Drop the entries an event of the given type makes stale.
+     */
+    public synchronized <E extends DomainEvent> void onEvent(Class<E> type, Consumer<? super E> invalidator) {
+        invalidators.add(event -> {
+            if (type.isInstance(event)) {
+                invalidator.accept(type.cast(event));
+            }
+        });
+    }
+
+    /**
+     * The cached value for the key, or load it and cache it. Values are shared: callers
+     * returning mutable objects must hand out copies.
+     */
+    public <K, V> V get(BoundedCache<K, V> cache, K key, Supplier<V> loader) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = currentWriteVersion();
+        V value = loader.get();
+        if (value != null) {
+            putIfUnchanged(cache, key, value, version);
+        }
+        return value;
+    }
+
+    /**
+     * Something changed: drop the entries the event makes stale, in every decorator.
+     */
+    public synchronized void changed(DomainEvent event) {
+        writeVersion++;
+        for (Consumer<DomainEvent> invalidator : invalidators) {
+            invalidator.accept(event);
+        }
+    }
+
+    /**
+     * Run an invalidation for a write whose event is not known yet (the ids it touches are
+     * only found by the delegate); its event follows through the bus.
+     */
+    public synchronized void changed(Runnable invalidation) {
+        writeVersion++;
+        invalidation.run();
+    }
+
+    private synchronized long currentWriteVersion() {
+        return writeVersion;
+    }
+
+    private synchronized <K, V> void putIfUnchanged(BoundedCache<K, V> cache, K key, V value, long versionAtRead) {
+        if (versionAtRead == writeVersion) {
+            cache.put(key, value);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("ServiceCaches{changes=").append(writeVersion).append('}');
+        for (BoundedCache<?, ?> cache : caches) {
+            sb.append(System.lineSeparator()).append("  ").append(cache);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Background threads for service calls, so the JavaFX Application Thread never waits on JDBC.
+ *
+ * The async services ({@link AsyncQuizService} and friends) run every call here. The pool is
+ * small on purpose: reads are limited by the connection pool anyway, and writes all end up on
+ * the single database writer thread.
+ *
+ * Cancelling a future returned by {@link #supplyAsync(Supplier)} skips the work if it has not
+ * started yet and interrupts the worker thread if it has (which, for example, aborts a thread
+ * waiting for a pooled connection).
+ */
+public final class ServiceExecutors {
+
+    private static final int IO_THREADS = Integer.getInteger("quiz.service.ioThreads", 4);
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+    private static final ThreadPoolExecutor io = new ThreadPoolExecutor(IO_THREADS, IO_THREADS,
+            30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "service-io-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        io.allowCoreThreadTimeOut(true);
+    }
+
+    private ServiceExecutors() {
+    }
+
+    /**
+     * Run a service call on the I/O pool.
+     * @return completes with the call's result; cancel it to abandon the call
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = io.submit(() -> {
+                if (result.isDone()) {
+                    return; // cancelled while queued
+                }
+                try {
+                    result.complete(work.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        // CompletableFuture.cancel never interrupts; forward it to the running task
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public static int getQueuedCalls() {
+        return io.getQueue().size();
+    }
+
+    public static int getActiveCalls() {
+        return io.getActiveCount();
+    }
+
+    /**
+     * Stop taking new calls and give running ones a moment to finish.
+     */
+    public static void shutdown() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                io.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,50 @@
 package com.example.service;
 
+import com.example.quizlogic.QuizAttempt;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Simple service locator pattern for dependency injection.
  *
  * Provides access to database-backed service implementations.
+ * With -Dquiz.cache.services=quiz,attempt,group,user (any subset) the named services also
+ * cache their reads, through the Caching*Service decorators; see ServiceCaches.
  *
  * Usage: ServiceLocator.getAuthService().login(email, password);
  */
 public class ServiceLocator {
 
+    // Group commit for quiz submissions (see AttemptSubmissionQueue)
+    private static final int SUBMIT_QUEUE_CAPACITY = Integer.getInteger("quiz.submit.queueCapacity", 1024);
+    private static final int SUBMIT_MAX_BATCH = Integer.getInteger("quiz.submit.maxBatch", 64);
+    private static final long SUBMIT_MAX_DELAY_MS = Long.getLong("quiz.submit.maxDelayMs", 10L);
+
+    // Read caching decorators: comma-separated service names, off by default
+    private static final String CACHED_SERVICES = System.getProperty("quiz.cache.services", "");
+    private static final int SERVICE_CACHE_SIZE = Integer.getInteger("quiz.cache.services.size", 500);
+
+    // -Dquiz.stats=true prints the queue, cache, index and event bus counters at shutdown
+    private static final boolean PRINT_STATS = Boolean.getBoolean("quiz.stats");
+
     private static AuthService authService;
     private static UserService userService;
     private static QuizService quizService;
     private static AttemptService attemptService;
     private static GroupService groupService;
+    private static AttemptSubmissionQueue attemptSubmissionQueue;
+    private static ServiceCaches serviceCaches; // null when no service caches
+    // Undecorated services, for their own cache statistics and to unsubscribe them on reset()
+    private static DatabaseUserService databaseUserService;
+    private static DatabaseQuizService databaseQuizService;
+
+    // Async views always delegate to the current services, so they survive reset()
+    private static final AsyncUserService asyncUserService = ServiceLocator::getUserService;
+    private static final AsyncQuizService asyncQuizService = ServiceLocator::getQuizService;
+    private static final AsyncAttemptService asyncAttemptService = ServiceLocator::getAttemptService;
+    private static final AsyncGroupService asyncGroupService = ServiceLocator::getGroupService;
 
     static {
         initialize();
@@ -22,10 +53,55 @@ public class ServiceLocator {
     private static void initialize() {
         // Initialize database services
         authService = new DatabaseAuthService();
-        userService = new DatabaseUserService();
-        quizService = new DatabaseQuizService(userService);
-        attemptService = new DatabaseAttemptService();
+        databaseUserService = new DatabaseUserService();
+        userService = databaseUserService;
+        databaseQuizService = new DatabaseQuizService();
+        quizService = databaseQuizService;
+        DatabaseAttemptService dbAttemptService = new DatabaseAttemptService();
+        attemptService = dbAttemptService;
         groupService = new DatabaseGroupService();
+        // Queued submissions are saved straight to the database service
+        AttemptSubmissionQueue.BatchWriter batchWriter = dbAttemptService::persistAttempts;
+
+        List<String> cached = Arrays.stream(CACHED_SERVICES.split(","))
+                .map(name -> name.trim().toLowerCase())
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+        if (cached.isEmpty()) {
+            serviceCaches = null;
+        } else {
+            // Only the named services are wrapped; writes through the others reach these caches
+            // with their events, a moment after the write
+            ServiceCaches caches = new ServiceCaches();
+            serviceCaches = caches;
+            if (cached.contains("user")) {
+                userService = new CachingUserService(userService, caches, SERVICE_CACHE_SIZE);
+            }
+            if (cached.contains("quiz")) {
+                quizService = new CachingQuizService(quizService, caches, SERVICE_CACHE_SIZE);
+            }
+            if (cached.contains("attempt")) {
+                attemptService = new CachingAttemptService(attemptService, caches, SERVICE_CACHE_SIZE);
+            }
+            if (cached.contains("group")) {
+                groupService = new CachingGroupService(groupService, caches, SERVICE_CACHE_SIZE);
+            }
+            // Drop the saved attempts' entries before the submitters' futures complete, not
+            // only when their events arrive
+            batchWriter = batch -> {
+                try {
+                    dbAttemptService.persistAttempts(batch);
+                } finally {
+                    for (QuizAttempt attempt : batch) {
+                        caches.changed(new DomainEvent.AttemptSaved(attempt.getId(), attempt.getQuizId(),
+                                attempt.getStudentId()));
+                    }
+                }
+            };
+        }
+
+        attemptSubmissionQueue = new AttemptSubmissionQueue(batchWriter,
+                SUBMIT_QUEUE_CAPACITY, SUBMIT_MAX_BATCH, SUBMIT_MAX_DELAY_MS);
     }
 
     public static AuthService getAuthService() {
@@ -47,11 +123,58 @@ public class ServiceLocator {
     public static GroupService getGroupService() {
         return groupService;
     }
+
+    public static AsyncUserService getAsyncUserService() {
+        return asyncUserService;
+    }
+
+    public static AsyncQuizService getAsyncQuizService() {
+        return asyncQuizService;
+    }
+
+    public static AsyncAttemptService getAsyncAttemptService() {
+        return asyncAttemptService;
+    }
+
+    public static AsyncGroupService getAsyncGroupService() {
+        return asyncGroupService;
+    }
+
+    public static AttemptSubmissionQueue getAttemptSubmissionQueue() {
+        return attemptSubmissionQueue;
+    }
+
+    /**
+     * Save any queued submissions and stop background work. Call before DatabaseManager.shutdown().
+     */
+    public static void shutdown() {
+        attemptSubmissionQueue.shutdown();
+        DomainEventBus.getInstance().shutdown();
+        if (PRINT_STATS) {
+            System.out.println(attemptSubmissionQueue);
+            System.out.println(databaseUserService.getCacheStats());
+            System.out.println(databaseQuizService.getCacheStats());
+            System.out.println(EnrollmentIndex.getInstance());
+            if (serviceCaches != null) {
+                System.out.println(serviceCaches);
+            }
+            System.out.println(DomainEventBus.getInstance());
+        }
+        ServiceExecutors.shutdown();
+    }
     
     /**
      * Reinitialize all services (useful for testing).
      */
     public static void reset() {
+        attemptSubmissionQueue.shutdown();
+        // The replaced services and caches would otherwise stay subscribed to the event bus
+        databaseUserService.close();
+        databaseQuizService.close();
+        if (serviceCaches != null) {
+            serviceCaches.close();
+        }
+        EnrollmentIndex.getInstance().reload();
         initialize();
     }
 }
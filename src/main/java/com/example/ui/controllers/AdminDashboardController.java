@@ -1,14 +1,19 @@
 package com.example.ui.controllers;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import com.example.model.Group;
-import com.example.model.Quiz;
+import com.example.model.QuizSummary;
 import com.example.model.User;
 import com.example.service.AttemptService;
+import com.example.service.DomainEvent;
 import com.example.service.GroupService;
 import com.example.service.QuizService;
 import com.example.service.ServiceLocator;
@@ -16,6 +21,7 @@ import com.example.service.UserService;
 import com.example.ui.util.SceneManager;
 import com.example.ui.util.SessionManager;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -69,11 +75,11 @@ public class AdminDashboardController {
     @FXML private ComboBox<String> roleFilterCombo;
 
     // Quizzes Table
-    @FXML private TableView<Quiz> quizzesTable;
-    @FXML private TableColumn<Quiz, Integer> quizIdColumn;
-    @FXML private TableColumn<Quiz, String> quizTitleColumn;
-    @FXML private TableColumn<Quiz, String> quizTeacherColumn;
-    @FXML private TableColumn<Quiz, String> quizQuestionsColumn;
+    @FXML private TableView<QuizSummary> quizzesTable;
+    @FXML private TableColumn<QuizSummary, Integer> quizIdColumn;
+    @FXML private TableColumn<QuizSummary, String> quizTitleColumn;
+    @FXML private TableColumn<QuizSummary, String> quizTeacherColumn;
+    @FXML private TableColumn<QuizSummary, String> quizQuestionsColumn;
 
     // Groups Table
     @FXML private TableView<Group> groupsTable;
@@ -101,6 +107,8 @@ public class AdminDashboardController {
     private User currentUser;
     private ObservableList<Group> allGroups;
     private Group selectedGroup; // Track selected group for enrollment management
+    // Group average per student id, for the enrolled students table
+    private Map<Integer, Double> studentAverages = new HashMap<>();
 
     @FXML
     private void initialize() {
@@ -113,9 +121,49 @@ public class AdminDashboardController {
         setupGroupsTable();
         setupEnrollmentUI();
         setupSearch();
+        subscribeToChanges();
         loadData();
     }
 
+    /**
+     * Keep the counts and the changed user and quiz rows current as other sessions register,
+     * edit quizzes and submit attempts.
+     */
+    private void subscribeToChanges() {
+        SceneManager scenes = SceneManager.getInstance();
+        scenes.subscribeWhileShown(DomainEvent.AttemptSaved.class, e -> showCount(totalAttemptsCount,
+                ServiceLocator.getAsyncAttemptService().getTotalAttemptCount()));
+        scenes.subscribeWhileShown(DomainEvent.UserChanged.class, e -> {
+            ServiceLocator.getAsyncUserService().getUserById(e.getUserId())
+                    .thenAccept(user -> Platform.runLater(() -> replaceRow(allUsers, User::getId, e.getUserId(), user)));
+            updateStats();
+        });
+        scenes.subscribeWhileShown(DomainEvent.QuizChanged.class, e -> {
+            ServiceLocator.getAsyncQuizService().getQuizSummaryById(e.getQuizId())
+                    .thenAccept(quiz -> Platform.runLater(
+                            () -> replaceRow(quizzesTable.getItems(), QuizSummary::getId, e.getQuizId(), quiz)));
+            showCount(totalQuizzesCount, ServiceLocator.getAsyncQuizService().getTotalQuizCount());
+        });
+    }
+
+    // Replace the row with the given id by the reloaded item, add it if new, remove it if gone
+    private <T> void replaceRow(List<T> rows, ToIntFunction<T> idOf, int id, Optional<T> item) {
+        if (rows == null) {
+            return;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (idOf.applyAsInt(rows.get(i)) == id) {
+                if (item.isPresent()) {
+                    rows.set(i, item.get());
+                } else {
+                    rows.remove(i);
+                }
+                return;
+            }
+        }
+        item.ifPresent(rows::add);
+    }
+
     private void setupHeader() {
         if (currentUser != null) {
             welcomeLabel.setText("Welcome, " + currentUser.getFirstName() + "!");
@@ -163,11 +211,8 @@ public class AdminDashboardController {
         quizTitleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
         
         quizTeacherColumn.setCellValueFactory(cellData -> {
-            int teacherId = cellData.getValue().getTeacherId();
-            String name = userService.getUserById(teacherId)
-                    .map(User::getFullName)
-                    .orElse("Unknown");
-            return new SimpleStringProperty(name);
+            String name = cellData.getValue().getTeacherName();
+            return new SimpleStringProperty(name != null ? name : "Unknown");
         });
 
         quizQuestionsColumn.setCellValueFactory(cellData -> {
@@ -209,7 +254,7 @@ public class AdminDashboardController {
         usersTable.setItems(filteredUsers);
 
         // Load quizzes
-        List<Quiz> quizzes = quizService.getAllQuizzes();
+        List<QuizSummary> quizzes = quizService.getAllQuizSummaries();
         quizzesTable.setItems(FXCollections.observableArrayList(quizzes));
 
         // Load groups so the Group Management tab is populated on initial load
@@ -222,11 +267,16 @@ public class AdminDashboardController {
     }
 
     private void updateStats() {
-        totalUsersCount.setText(String.valueOf(userService.getTotalUserCount()));
-        totalQuizzesCount.setText(String.valueOf(quizService.getTotalQuizCount()));
-        totalAttemptsCount.setText(String.valueOf(attemptService.getTotalAttemptCount()));
-        teacherCount.setText(String.valueOf(userService.countUsersByRole(User.Role.TEACHER)));
-        studentCount.setText(String.valueOf(userService.countUsersByRole(User.Role.STUDENT)));
+        // The counts are independent, so run them side by side off the FX thread
+        showCount(totalUsersCount, ServiceLocator.getAsyncUserService().getTotalUserCount());
+        showCount(totalQuizzesCount, ServiceLocator.getAsyncQuizService().getTotalQuizCount());
+        showCount(totalAttemptsCount, ServiceLocator.getAsyncAttemptService().getTotalAttemptCount());
+        showCount(teacherCount, ServiceLocator.getAsyncUserService().countUsersByRole(User.Role.TEACHER));
+        showCount(studentCount, ServiceLocator.getAsyncUserService().countUsersByRole(User.Role.STUDENT));
+    }
+
+    private void showCount(Label label, CompletableFuture<Integer> count) {
+        count.thenAccept(value -> Platform.runLater(() -> label.setText(String.valueOf(value))));
     }
 
     @FXML
@@ -570,38 +620,12 @@ public class AdminDashboardController {
                 return new SimpleStringProperty("N/A");
             }
 
-            User student = cellData.getValue();
-            List<Quiz> groupQuizzes = quizService.getQuizzesByGroup(selectedGroup.getId());
-
-            if (groupQuizzes.isEmpty()) {
-                return new SimpleStringProperty("N/A");
-            }
-
-            // Calculate average percentage across all quizzes in the group (best attempts only)
-            List<Double> percentages = new ArrayList<>();
-
-            for (Quiz quiz : groupQuizzes) {
-                Optional<Integer> bestScore = attemptService.getBestScore(student.getId(), quiz.getId());
-                if (bestScore.isPresent()) {
-                    int totalScore = quiz.getQuestions().stream()
-                            .mapToInt(com.example.quizlogic.Question::getAssignedScore)
-                            .sum();
-                    if (totalScore > 0) {
-                        double percentage = (bestScore.get() * 100.0) / totalScore;
-                        percentages.add(percentage);
-                    }
-                }
-            }
-
-            if (percentages.isEmpty()) {
+            // Precomputed for the whole group when the students were loaded
+            Double avgPercentage = studentAverages.get(cellData.getValue().getId());
+            if (avgPercentage == null) {
                 return new SimpleStringProperty("N/A");
             }
 
-            double avgPercentage = percentages.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-
             return new SimpleStringProperty(String.format("%.1f%%", avgPercentage));
         });
 
@@ -638,9 +662,34 @@ public class AdminDashboardController {
 
     private void loadEnrolledStudents(int groupId) {
         List<User> students = groupService.getStudentsInGroup(groupId);
+        studentAverages = computeStudentAverages(groupId, students);
         enrolledStudentsTable.setItems(FXCollections.observableArrayList(students));
     }
 
+    /**
+     * Each student's average percentage over the group's quizzes (best attempt per quiz).
+     * Two queries for the whole group; students without attempts are left out.
+     */
+    private Map<Integer, Double> computeStudentAverages(int groupId, List<User> students) {
+        Map<Integer, Double> averages = new HashMap<>();
+        List<QuizSummary> groupQuizzes = quizService.getQuizSummariesByGroup(groupId);
+        if (groupQuizzes.isEmpty() || students.isEmpty()) {
+            return averages;
+        }
+
+        int[] studentIds = students.stream().mapToInt(User::getId).toArray();
+        int[] quizIds = groupQuizzes.stream().mapToInt(QuizSummary::getId).toArray();
+        int[] maxScores = groupQuizzes.stream().mapToInt(QuizSummary::getMaxScore).toArray();
+
+        double[] percentages = attemptService.getBestScores(studentIds, quizIds).averagePercentages(maxScores);
+        for (int i = 0; i < studentIds.length; i++) {
+            if (!Double.isNaN(percentages[i])) {
+                averages.put(studentIds[i], percentages[i]);
+            }
+        }
+        return averages;
+    }
+
     @FXML
     private void handleCreateGroup() {
         Dialog<Group> dialog = new Dialog<>();
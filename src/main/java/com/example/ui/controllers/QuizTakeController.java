@@ -11,6 +11,7 @@ import com.example.service.QuizService;
 import com.example.service.ServiceLocator;
 import com.example.ui.util.SceneManager;
 import com.example.ui.util.SessionManager;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -68,7 +69,7 @@ public class QuizTakeController {
     public void setQuiz(Quiz quiz) {
         this.quiz = quiz;
         
-        // Load questions if not already loaded
+        // Load questions if not already loaded (list screens pass QuizSummary.toQuiz(), which has none)
         if (quiz.getQuestions().isEmpty()) {
             quiz.setQuestions(quizService.getQuestionsByQuiz(quiz.getId()));
         }
@@ -239,11 +240,22 @@ public class QuizTakeController {
                 session.getAllAnswers()
         );
 
-        // Save attempt
-        attemptService.saveAttempt(attempt);
-
-        // Show results
-        showResults(attempt);
+        // Save attempt through the submission queue; results show once it is committed
+        submitButton.setDisable(true);
+        ServiceLocator.getAttemptSubmissionQueue().submit(attempt).whenComplete((saved, error) ->
+                Platform.runLater(() -> {
+                    if (error != null) {
+                        submitButton.setDisable(false);
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("Submission Failed");
+                        alert.setHeaderText("Your answers could not be saved.");
+                        alert.setContentText("Please try submitting again. (" + error.getMessage() + ")");
+                        alert.showAndWait();
+                        return;
+                    }
+                    // Show results
+                    showResults(saved);
+                }));
     }
 
     private void showResults(QuizAttempt attempt) {
@@ -4,24 +4,33 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.example.database.DatabaseManager;
 import com.example.database.RetrieveFromDatabase;
 import com.example.model.Group;
-import com.example.model.Quiz;
+import com.example.model.QuizSummary;
+import com.example.model.StudentQuizSnapshot;
 import com.example.model.User;
 import com.example.quizlogic.QuizAttempt;
-import com.example.quizlogic.Question;
 import com.example.service.AttemptService;
+import com.example.service.DomainEvent;
 import com.example.service.QuizService;
+import com.example.service.ServiceExecutors;
 import com.example.service.ServiceLocator;
 import com.example.ui.util.SceneManager;
 import com.example.ui.util.SessionManager;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -58,13 +67,13 @@ public class StudentDashboardController {
     @FXML private Label averageScoreLabel;
 
     // Assigned Quizzes Table
-    @FXML private TableView<Quiz> quizzesTable;
-    @FXML private TableColumn<Quiz, String> quizTitleColumn;
-    @FXML private TableColumn<Quiz, String> quizDescriptionColumn;
-    @FXML private TableColumn<Quiz, String> quizQuestionsColumn;
-    @FXML private TableColumn<Quiz, String> quizAttemptsColumn;
-    @FXML private TableColumn<Quiz, String> quizStatusColumn;
-    @FXML private TableColumn<Quiz, String> quizGradeColumn;
+    @FXML private TableView<StudentQuizSnapshot> quizzesTable;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizTitleColumn;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizDescriptionColumn;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizQuestionsColumn;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizAttemptsColumn;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizStatusColumn;
+    @FXML private TableColumn<StudentQuizSnapshot, String> quizGradeColumn;
     @FXML private TextField quizSearchField;
 
     // History Table
@@ -87,8 +96,8 @@ public class StudentDashboardController {
     private final com.example.service.GroupService groupService = ServiceLocator.getGroupService();
 
     // Data
-    private ObservableList<Quiz> assignedQuizzes;
-    private FilteredList<Quiz> filteredQuizzes;
+    private ObservableList<StudentQuizSnapshot> assignedQuizzes;
+    private FilteredList<StudentQuizSnapshot> filteredQuizzes;
     private User currentUser;
     @FXML private ComboBox<Group> studentGroupCombo;
 
@@ -102,9 +111,40 @@ public class StudentDashboardController {
         setupSearch();
         setupQuizSpecificChart();
         setupTableSelectionListeners();
+        subscribeToChanges();
         loadData();
     }
 
+    /**
+     * Patch the quizzes table when this student's attempts, enrollments or assigned quizzes
+     * change, instead of reloading the whole dashboard.
+     */
+    private void subscribeToChanges() {
+        if (currentUser == null) return;
+        int studentId = currentUser.getId();
+        SceneManager scenes = SceneManager.getInstance();
+        scenes.subscribeWhileShown(DomainEvent.AttemptSaved.class, e -> {
+            if (e.getStudentId() == studentId) {
+                refreshQuizzes(Set.of(e.getQuizId()), true);
+            }
+        });
+        scenes.subscribeWhileShown(DomainEvent.EnrollmentChanged.class, e -> {
+            if (e.getStudentId() == studentId) {
+                loadGroups();
+                refreshQuizzes(Set.of(), false);
+            }
+        });
+        // A quiz may be new in one of the student's groups, so any quiz change is checked
+        scenes.subscribeWhileShown(DomainEvent.QuizChanged.class,
+                e -> refreshQuizzes(Set.of(e.getQuizId()), false));
+        scenes.subscribeWhileShown(DomainEvent.QuestionChanged.class, e -> {
+            Set<Integer> changed = Arrays.stream(e.getQuizIds()).boxed().collect(Collectors.toSet());
+            if (assignedQuizzes != null && assignedQuizzes.stream().anyMatch(q -> changed.contains(q.getId()))) {
+                refreshQuizzes(changed, false);
+            }
+        });
+    }
+
     private void setupHeader() {
         if (currentUser != null) {
             welcomeLabel.setText("Welcome back, " + currentUser.getFirstName() + "!");
@@ -121,24 +161,20 @@ public class StudentDashboardController {
             return new SimpleStringProperty(String.valueOf(count));
         });
 
-        // NEW: Attempts column
+        // Attempts, status and grade come from the row's snapshot, loaded with the quiz
         quizAttemptsColumn.setCellValueFactory(cellData -> {
-            Quiz quiz = cellData.getValue();
-            int attemptCount = attemptService.getStudentAttemptsForQuiz(currentUser.getId(), quiz.getId()).size();
+            int attemptCount = cellData.getValue().getAttemptCount();
             return new SimpleStringProperty(String.valueOf(attemptCount));
         });
 
         // UPDATED: Status column now shows score as fraction (e.g., "Completed (3/3pts)")
         quizStatusColumn.setCellValueFactory(cellData -> {
-            Quiz quiz = cellData.getValue();
-            boolean attempted = attemptService.hasStudentAttemptedQuiz(currentUser.getId(), quiz.getId());
+            StudentQuizSnapshot quiz = cellData.getValue();
 
-            if (attempted) {
-                Optional<Integer> bestScore = attemptService.getBestScore(currentUser.getId(), quiz.getId());
+            if (quiz.hasAttempted()) {
+                Optional<Integer> bestScore = quiz.getBestScore();
                 if (bestScore.isPresent()) {
-                    int totalScore = quiz.getQuestions().stream()
-                            .mapToInt(Question::getAssignedScore)
-                            .sum();
+                    int totalScore = quiz.getMaxScore();
                     String scoreText = String.format("Completed (%d/%d pts)", bestScore.get(), totalScore);
                     return new SimpleStringProperty(scoreText);
                 } else {
@@ -169,23 +205,11 @@ public class StudentDashboardController {
 
         // NEW: Grade column showing percentage
         quizGradeColumn.setCellValueFactory(cellData -> {
-            Quiz quiz = cellData.getValue();
-            Optional<Integer> bestScore = attemptService.getBestScore(currentUser.getId(), quiz.getId());
-
-            if (!bestScore.isPresent()) {
-                return new SimpleStringProperty("N/A");
-            }
-
-            int totalScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
-
-            if (totalScore == 0) {
-                return new SimpleStringProperty("N/A");
-            }
-
-            double percentage = (bestScore.get() * 100.0) / totalScore;
-            return new SimpleStringProperty(String.format("%.1f%%", percentage));
+            // Empty when not attempted or the quiz is worth 0 points
+            Optional<Double> percentage = cellData.getValue().getBestPercentage();
+            return new SimpleStringProperty(percentage
+                    .map(p -> String.format("%.1f%%", p))
+                    .orElse("N/A"));
         });
 
         // Color code the grade column
@@ -222,8 +246,8 @@ public class StudentDashboardController {
     private void setupHistoryTable() {
         historyQuizColumn.setCellValueFactory(cellData -> {
             int quizId = cellData.getValue().getQuizId();
-            String title = quizService.getQuizById(quizId)
-                    .map(Quiz::getTitle)
+            String title = quizService.getQuizSummaryById(quizId)
+                    .map(QuizSummary::getTitle)
                     .orElse("Unknown Quiz");
             return new SimpleStringProperty(title);
         });
@@ -234,14 +258,12 @@ public class StudentDashboardController {
             int score = attempt.getTotalScore();
 
             // Get quiz to calculate total
-            Quiz quiz = quizService.getQuizById(attempt.getQuizId()).orElse(null);
+            QuizSummary quiz = quizService.getQuizSummaryById(attempt.getQuizId()).orElse(null);
             if (quiz == null) {
                 return new SimpleStringProperty(score + " pts");
             }
 
-            int totalScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
+            int totalScore = quiz.getMaxScore();
 
             return new SimpleStringProperty(String.format("%d/%d pts", score, totalScore));
         });
@@ -332,14 +354,12 @@ public class StudentDashboardController {
 
     // FIXED: Show analytics for a specific quiz with correct x-axis alignment and improvement calculation
     private void showQuizAnalytics(int quizId) {
-        try (Connection conn = DatabaseManager.connectWithDatabase()) {
-            if (conn == null) return;
-
+        try (Connection conn = DatabaseManager.getConnection()) {
             // Get quiz details
-            Optional<Quiz> quizOpt = quizService.getQuizById(quizId);
+            Optional<QuizSummary> quizOpt = quizService.getQuizSummaryById(quizId);
             if (!quizOpt.isPresent()) return;
 
-            Quiz quiz = quizOpt.get();
+            QuizSummary quiz = quizOpt.get();
 
             // Get attempts for this specific quiz
             Map<Integer, QuizAttempt> attemptsMap = RetrieveFromDatabase.getScores(conn, quizId, currentUser.getId());
@@ -362,9 +382,7 @@ public class StudentDashboardController {
             selectedQuizLabel.setText("Quiz: " + quiz.getTitle());
 
             // Calculate total possible score
-            int totalPossibleScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
+            int totalPossibleScore = quiz.getMaxScore();
 
             if (totalPossibleScore == 0) {
                 quizStatsLabel.setText("Quiz has no questions or invalid scoring");
@@ -387,7 +405,7 @@ public class StudentDashboardController {
 
             quizStatsLabel.setText(String.format(
                 "Best Score: %.1f%% | Total Attempts: %d | Questions: %d",
-                bestScore, totalAttempts, quiz.getQuestions().size()
+                bestScore, totalAttempts, quiz.getQuestionCount()
             ));
 
             // Build the chart with FIXED x-axis alignment
@@ -442,16 +460,23 @@ public class StudentDashboardController {
     private void loadData() {
         if (currentUser == null) return;
 
-        // Load assigned quizzes
-        List<Quiz> quizzes = quizService.getAssignedQuizzes(currentUser.getId());
+        // Load assigned quizzes with this student's attempt count and best score (one query)
+        List<StudentQuizSnapshot> quizzes = quizService.getAssignedQuizSnapshots(currentUser.getId());
         assignedQuizzes = FXCollections.observableArrayList(quizzes);
         filteredQuizzes = new FilteredList<>(assignedQuizzes, p -> true);
         quizzesTable.setItems(filteredQuizzes);
 
         // Load attempt history
-        List<QuizAttempt> attempts = attemptService.getAttemptsByStudent(currentUser.getId());
+        List<QuizAttempt> attempts = attemptService.getAttemptSummariesByStudent(currentUser.getId());
         historyTable.setItems(FXCollections.observableArrayList(attempts));
 
+        loadGroups();
+
+        // Update stats
+        updateStats(quizzes, attempts);
+    }
+
+    private void loadGroups() {
         // Load groups for this student
         try {
             List<com.example.model.Group> groups = groupService.getGroupsByStudent(currentUser.getId());
@@ -469,13 +494,56 @@ public class StudentDashboardController {
         } catch (Exception e) {
             groupsLabel.setText("Groups: Error loading groups");
         }
+    }
 
-        // Update stats
-        updateStats(quizzes, attempts);
+    /**
+     * Reload the snapshots (one query) and patch the table: rows of the changed quizzes are
+     * replaced, quizzes no longer assigned are removed and newly assigned ones added. The
+     * attempt history is reloaded too when the student saved an attempt.
+     */
+    private void refreshQuizzes(Set<Integer> changedQuizIds, boolean reloadHistory) {
+        if (assignedQuizzes == null) return;
+        int studentId = currentUser.getId();
+        CompletableFuture<List<StudentQuizSnapshot>> quizzes =
+                ServiceExecutors.supplyAsync(() -> quizService.getAssignedQuizSnapshots(studentId));
+        CompletableFuture<List<QuizAttempt>> attempts = reloadHistory
+                ? ServiceExecutors.supplyAsync(() -> attemptService.getAttemptSummariesByStudent(studentId))
+                : CompletableFuture.completedFuture(null);
+        quizzes.thenAcceptBoth(attempts, (quizRows, history) ->
+                Platform.runLater(() -> patchQuizzes(quizRows, history, changedQuizIds)));
+    }
+
+    private void patchQuizzes(List<StudentQuizSnapshot> quizzes, List<QuizAttempt> attempts,
+                              Set<Integer> changedQuizIds) {
+        Map<Integer, StudentQuizSnapshot> byId = quizzes.stream()
+                .collect(Collectors.toMap(QuizSummary::getId, Function.identity()));
+        Map<Integer, Integer> rows = new HashMap<>();
+        for (int i = assignedQuizzes.size() - 1; i >= 0; i--) {
+            StudentQuizSnapshot row = assignedQuizzes.get(i);
+            StudentQuizSnapshot fresh = byId.get(row.getId());
+            if (fresh == null) {
+                assignedQuizzes.remove(i);
+            } else {
+                rows.put(row.getId(), i);
+                if (changedQuizIds.contains(row.getId())) {
+                    assignedQuizzes.set(i, fresh);
+                }
+            }
+        }
+        for (StudentQuizSnapshot quiz : quizzes) {
+            if (!rows.containsKey(quiz.getId())) {
+                assignedQuizzes.add(quiz);
+            }
+        }
+
+        if (attempts != null) {
+            historyTable.setItems(FXCollections.observableArrayList(attempts));
+        }
+        updateStats(assignedQuizzes, historyTable.getItems());
     }
 
     // UPDATED: Calculate stats with correct logic
-    private void updateStats(List<Quiz> quizzes, List<QuizAttempt> attempts) {
+    private void updateStats(List<StudentQuizSnapshot> quizzes, List<QuizAttempt> attempts) {
         // Count unique completed quizzes
         long completedCount = attempts.stream()
                 .map(QuizAttempt::getQuizId)
@@ -499,16 +567,24 @@ public class StudentDashboardController {
                     .distinct()
                     .collect(java.util.stream.Collectors.toList());
 
+            // Assigned quizzes already carry their best percentage; only look up quizzes from
+            // groups the student has left
+            Map<Integer, StudentQuizSnapshot> quizzesById = quizzes.stream()
+                    .collect(java.util.stream.Collectors.toMap(QuizSummary::getId, q -> q));
+
             for (Integer quizId : attemptedQuizIds) {
-                Optional<Quiz> quizOpt = quizService.getQuizById(quizId);
+                StudentQuizSnapshot snapshot = quizzesById.get(quizId);
+                if (snapshot != null) {
+                    snapshot.getBestPercentage().ifPresent(bestPercentages::add);
+                    continue;
+                }
+                Optional<QuizSummary> quizOpt = quizService.getQuizSummaryById(quizId);
                 if (quizOpt.isPresent()) {
-                    Quiz quiz = quizOpt.get();
+                    QuizSummary quiz = quizOpt.get();
                     Optional<Integer> bestScore = attemptService.getBestScore(currentUser.getId(), quizId);
 
                     if (bestScore.isPresent()) {
-                        int totalScore = quiz.getQuestions().stream()
-                                .mapToInt(Question::getAssignedScore)
-                                .sum();
+                        int totalScore = quiz.getMaxScore();
                         if (totalScore > 0) {
                             double percentage = (bestScore.get() * 100.0) / totalScore;
                             bestPercentages.add(percentage);
@@ -533,18 +609,14 @@ public class StudentDashboardController {
     private void updateAssignedQuizzesCount() {
         // Count quizzes that are NOT completed (i.e., have zero attempts)
         long incompleteCount = filteredQuizzes.stream()
-                .filter(quiz -> {
-                    List<QuizAttempt> quizAttempts = attemptService.getStudentAttemptsForQuiz(
-                            currentUser.getId(), quiz.getId());
-                    return quizAttempts.isEmpty();
-                })
+                .filter(quiz -> !quiz.hasAttempted())
                 .count();
         assignedQuizzesCount.setText(String.valueOf(incompleteCount));
     }
 
     @FXML
     private void handleStartQuiz() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        QuizSummary selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
         if (selectedQuiz == null) {
             showAlert("No Quiz Selected", "Please select a quiz from the table to start.");
             return;
@@ -560,7 +632,8 @@ public class StudentDashboardController {
         QuizTakeController controller = SceneManager.getInstance()
                 .loadViewWithController(SceneManager.QUIZ_TAKE);
         if (controller != null) {
-            controller.setQuiz(selectedQuiz);
+            // Questions are loaded by the quiz screen
+            controller.setQuiz(selectedQuiz.toQuiz());
         }
     }
 
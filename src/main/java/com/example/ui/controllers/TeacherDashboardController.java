@@ -2,23 +2,32 @@ package com.example.ui.controllers;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.example.model.Group;
+import com.example.model.IntBitmap;
 import com.example.model.Quiz;
+import com.example.model.QuizStatistics;
+import com.example.model.QuizSummary;
 import com.example.model.User;
 import com.example.quizlogic.QuizAttempt;
-import com.example.quizlogic.Question;
 import com.example.service.AttemptService;
+import com.example.service.DomainEvent;
 import com.example.service.GroupService;
 import com.example.service.QuizService;
+import com.example.service.ServiceExecutors;
 import com.example.service.ServiceLocator;
 import com.example.service.UserService;
 import com.example.ui.util.SceneManager;
 import com.example.ui.util.SessionManager;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -26,6 +35,7 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar;
@@ -81,17 +91,17 @@ public class TeacherDashboardController {
 
     // My Quizzes Table
     @FXML
-    private TableView<Quiz> quizzesTable;
+    private TableView<QuizSummary> quizzesTable;
     @FXML
-    private TableColumn<Quiz, String> quizTitleColumn;
+    private TableColumn<QuizSummary, String> quizTitleColumn;
     @FXML
-    private TableColumn<Quiz, String> quizDescriptionColumn;
+    private TableColumn<QuizSummary, String> quizDescriptionColumn;
     @FXML
-    private TableColumn<Quiz, String> quizQuestionsColumn;
+    private TableColumn<QuizSummary, String> quizQuestionsColumn;
     @FXML
-    private TableColumn<Quiz, String> quizAttemptsColumn;
+    private TableColumn<QuizSummary, String> quizAttemptsColumn;
     @FXML
-    private TableColumn<Quiz, String> quizAvgScoreColumn;
+    private TableColumn<QuizSummary, String> quizAvgScoreColumn;
     @FXML
     private TextField quizSearchField;
 
@@ -126,16 +136,28 @@ public class TeacherDashboardController {
     private final GroupService groupService = ServiceLocator.getGroupService();
 
     // Data
-    private ObservableList<Quiz> myQuizzes;
-    private FilteredList<Quiz> filteredQuizzes;
+    private ObservableList<QuizSummary> myQuizzes;
+    private FilteredList<QuizSummary> filteredQuizzes;
     private User currentUser;
     private Group selectedGroup;
-    private Quiz selectedQuiz;
+    private QuizSummary selectedQuiz;
     private User selectedStudent;
+    // Group average per student id, for the students table
+    private Map<Integer, Double> studentAverages = new HashMap<>();
+    // Attempt statistics per quiz id, for the quizzes table
+    private Map<Integer, QuizStatistics> quizStatistics = new HashMap<>();
+
+    // Background load for the selected group; the generation invalidates results of older loads
+    private final List<CompletableFuture<?>> groupLoads = new ArrayList<>();
+    private int groupLoadGeneration;
+    private Node quizzesPlaceholder;
+    private Node studentsPlaceholder;
 
     @FXML
     private void initialize() {
         currentUser = SessionManager.getInstance().getCurrentUser();
+        quizzesPlaceholder = quizzesTable.getPlaceholder();
+        studentsPlaceholder = studentsTable.getPlaceholder();
 
         setupHeader();
         setupGroupsTable();
@@ -143,9 +165,27 @@ public class TeacherDashboardController {
         setupStudentsTable();
         setupResultsTable();
         setupSearch();
+        subscribeToChanges();
         loadData();
     }
 
+    /**
+     * Patch the open group's rows when quizzes, questions, attempts or enrollments change,
+     * here or in another session, instead of reloading the whole group.
+     */
+    private void subscribeToChanges() {
+        SceneManager scenes = SceneManager.getInstance();
+        scenes.subscribeWhileShown(DomainEvent.QuizChanged.class, e -> refreshQuizRows(e.getQuizId()));
+        scenes.subscribeWhileShown(DomainEvent.QuestionChanged.class, e -> refreshQuizRows(e.getQuizIds()));
+        scenes.subscribeWhileShown(DomainEvent.AttemptSaved.class, this::handleAttemptSaved);
+        scenes.subscribeWhileShown(DomainEvent.EnrollmentChanged.class, e -> {
+            groupsTable.refresh();
+            if (selectedGroup != null && selectedGroup.getId() == e.getGroupId()) {
+                refreshStudents();
+            }
+        });
+    }
+
     private void setupHeader() {
         if (currentUser != null) {
             welcomeLabel.setText("Welcome, " + currentUser.getFirstName() + "!");
@@ -163,7 +203,7 @@ public class TeacherDashboardController {
 
         groupQuizzesColumn.setCellValueFactory(cellData -> {
             int groupId = cellData.getValue().getId();
-            int count = quizService.getQuizzesByGroup(groupId).size();
+            int count = quizService.getQuizSummariesByGroup(groupId).size();
             return new SimpleIntegerProperty(count).asObject();
         });
 
@@ -173,12 +213,11 @@ public class TeacherDashboardController {
                 selectedGroup = newSelection;
                 selectedGroupLabel
                         .setText("📚 Selected: " + newSelection.getName() + " - Manage quizzes for this group below");
-                loadQuizzesForSelectedGroup();
-                loadStudentsForSelectedGroup();
-                updateStatsForGroup();
+                loadSelectedGroup();
                 clearResultsFilter();
             } else {
                 selectedGroup = null;
+                cancelGroupLoad();
                 selectedGroupLabel.setText("💡 Select a group to manage its quizzes");
                 quizzesTable.setItems(FXCollections.observableArrayList());
                 studentsTable.setItems(FXCollections.observableArrayList());
@@ -194,6 +233,7 @@ public class TeacherDashboardController {
             if (selectedGroup != null && !groupsTable.getItems().contains(selectedGroup)) {
                 groupsTable.getSelectionModel().clearSelection();
                 selectedGroup = null;
+                cancelGroupLoad();
                 quizzesTable.setItems(FXCollections.observableArrayList());
                 studentsTable.setItems(FXCollections.observableArrayList());
                 clearResultsFilter();
@@ -211,33 +251,27 @@ public class TeacherDashboardController {
         });
 
         quizAttemptsColumn.setCellValueFactory(cellData -> {
-            int quizId = cellData.getValue().getId();
-            int attempts = attemptService.getAttemptsByQuiz(quizId).size();
-            return new SimpleStringProperty(String.valueOf(attempts));
+            QuizStatistics stats = statisticsFor(cellData.getValue());
+            return new SimpleStringProperty(String.valueOf(stats.getAttemptCount()));
         });
 
         quizAvgScoreColumn.setCellValueFactory(cellData -> {
-            Quiz quiz = cellData.getValue();
-            List<QuizAttempt> attempts = attemptService.getAttemptsByQuiz(quiz.getId());
+            QuizSummary quiz = cellData.getValue();
+            QuizStatistics stats = statisticsFor(quiz);
 
-            if (attempts.isEmpty()) {
+            if (!stats.hasAttempts()) {
                 return new SimpleStringProperty("N/A");
             }
 
             // Calculate total possible score
-            int totalScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
+            int totalScore = quiz.getMaxScore();
 
             if (totalScore == 0) {
                 return new SimpleStringProperty("N/A");
             }
 
-            // Calculate average score
-            double avgScore = attempts.stream()
-                    .mapToInt(QuizAttempt::getTotalScore)
-                    .average()
-                    .orElse(0.0);
+            // Average score, from the quiz's statistics row
+            double avgScore = stats.getAverageScore();
 
             // Calculate percentage
             double percentage = (avgScore / totalScore) * 100;
@@ -282,7 +316,7 @@ public class TeacherDashboardController {
         });
 
         // If the underlying quizzes list changes (e.g. quizzes removed by group deletion), clear selection if it no longer exists
-        quizzesTable.getItems().addListener((javafx.collections.ListChangeListener.Change<? extends Quiz> ch) -> {
+        quizzesTable.getItems().addListener((javafx.collections.ListChangeListener.Change<? extends QuizSummary> ch) -> {
             if (selectedQuiz != null && !quizzesTable.getItems().contains(selectedQuiz)) {
                 quizzesTable.getSelectionModel().clearSelection();
                 selectedQuiz = null;
@@ -301,38 +335,12 @@ public class TeacherDashboardController {
                 return new SimpleStringProperty("N/A");
             }
 
-            User student = cellData.getValue();
-            List<Quiz> groupQuizzes = quizService.getQuizzesByGroup(selectedGroup.getId());
-
-            if (groupQuizzes.isEmpty()) {
-                return new SimpleStringProperty("N/A");
-            }
-
-            // Calculate average percentage across all quizzes in the group (best attempts only)
-            List<Double> percentages = new ArrayList<>();
-
-            for (Quiz quiz : groupQuizzes) {
-                Optional<Integer> bestScore = attemptService.getBestScore(student.getId(), quiz.getId());
-                if (bestScore.isPresent()) {
-                    int totalScore = quiz.getQuestions().stream()
-                            .mapToInt(Question::getAssignedScore)
-                            .sum();
-                    if (totalScore > 0) {
-                        double percentage = (bestScore.get() * 100.0) / totalScore;
-                        percentages.add(percentage);
-                    }
-                }
-            }
-
-            if (percentages.isEmpty()) {
+            // Precomputed for the whole group when the students were loaded
+            Double avgPercentage = studentAverages.get(cellData.getValue().getId());
+            if (avgPercentage == null) {
                 return new SimpleStringProperty("N/A");
             }
 
-            double avgPercentage = percentages.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-
             return new SimpleStringProperty(String.format("%.1f%%", avgPercentage));
         });
 
@@ -381,14 +389,12 @@ public class TeacherDashboardController {
             int score = attempt.getTotalScore();
 
             // Get quiz to calculate total
-            Quiz quiz = quizService.getQuizById(attempt.getQuizId()).orElse(null);
+            QuizSummary quiz = quizService.getQuizSummaryById(attempt.getQuizId()).orElse(null);
             if (quiz == null) {
                 return new SimpleStringProperty(score + " pts");
             }
 
-            int totalScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
+            int totalScore = quiz.getMaxScore();
 
             return new SimpleStringProperty(String.format("%d/%d pts", score, totalScore));
         });
@@ -397,14 +403,12 @@ public class TeacherDashboardController {
             QuizAttempt attempt = cellData.getValue();
             int score = attempt.getTotalScore();
 
-            Quiz quiz = quizService.getQuizById(attempt.getQuizId()).orElse(null);
+            QuizSummary quiz = quizService.getQuizSummaryById(attempt.getQuizId()).orElse(null);
             if (quiz == null) {
                 return new SimpleStringProperty("N/A");
             }
 
-            int totalScore = quiz.getQuestions().stream()
-                    .mapToInt(Question::getAssignedScore)
-                    .sum();
+            int totalScore = quiz.getMaxScore();
 
             if (totalScore == 0) {
                 return new SimpleStringProperty("N/A");
@@ -476,73 +480,351 @@ public class TeacherDashboardController {
         // User must select a group first
     }
 
-    private void loadQuizzesForSelectedGroup() {
-        if (selectedGroup == null)
+    /**
+     * Load the selected group's quizzes, students and stats in the background.
+     * Each part shows a placeholder until its result arrives, or an error / "N/A" if it fails.
+     * A load still running for the previously selected group is cancelled, and anything it
+     * returns is ignored.
+     */
+    private void loadSelectedGroup() {
+        cancelGroupLoad();
+        if (selectedGroup == null) {
             return;
+        }
+        int generation = groupLoadGeneration;
+        int groupId = selectedGroup.getId();
+
+        quizzesTable.setItems(FXCollections.observableArrayList());
+        quizzesTable.setPlaceholder(loadingLabel("Loading quizzes..."));
+        studentsTable.setItems(FXCollections.observableArrayList());
+        studentsTable.setPlaceholder(loadingLabel("Loading students..."));
+        myQuizzesCount.setText("…");
+        totalAttemptsCount.setText("…");
+        averageScoreLabel.setText("…");
+
+        // The three parts are independent; whichever finishes first is shown first
+        CompletableFuture<QuizRows> quizzes = ServiceExecutors.supplyAsync(() -> {
+            List<QuizSummary> result = quizService.getQuizSummariesByGroup(groupId);
+            int[] quizIds = result.stream().mapToInt(QuizSummary::getId).toArray();
+            return new QuizRows(result, attemptService.getQuizStatistics(quizIds));
+        });
+        whenLoaded(quizzes, generation, "group quizzes", this::showQuizzes, this::showQuizzesFailed);
+
+        CompletableFuture<StudentRows> students = ServiceExecutors.supplyAsync(() -> {
+            List<User> result = groupService.getStudentsInGroup(groupId);
+            return new StudentRows(result, computeStudentAverages(groupId, result));
+        });
+        whenLoaded(students, generation, "group students", this::showStudents, this::showStudentsFailed);
+
+        CompletableFuture<GroupStats> stats = ServiceExecutors.supplyAsync(() -> computeGroupStats(groupId));
+        whenLoaded(stats, generation, "group stats", this::showGroupStats, this::showGroupStatsFailed);
+    }
+
+    // Abandon the current group load; results that still arrive are dropped by the generation check
+    private void cancelGroupLoad() {
+        groupLoadGeneration++;
+        for (CompletableFuture<?> load : groupLoads) {
+            load.cancel(true);
+        }
+        groupLoads.clear();
+        quizzesTable.setPlaceholder(quizzesPlaceholder);
+        studentsTable.setPlaceholder(studentsPlaceholder);
+    }
+
+    private void ifStillSelected(int generation, Runnable update) {
+        Platform.runLater(() -> {
+            if (generation == groupLoadGeneration) {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Show a background load's result on the FX thread if the group is still selected. If the
+     * load failed, log it and run the fallback instead (a cancelled load is simply dropped).
+     */
+    private <T> void whenLoaded(CompletableFuture<T> load, int generation, String what,
+                                Consumer<T> show, Runnable fallback) {
+        load.whenComplete((result, error) -> ifStillSelected(generation, () -> {
+            if (error == null) {
+                show.accept(result);
+            } else {
+                System.err.println("Error loading " + what + ": " + error.getMessage());
+                fallback.run();
+            }
+        }));
+        groupLoads.add(load);
+    }
 
-        // Load quizzes for the selected group
-        List<Quiz> quizzes = quizService.getQuizzesByGroup(selectedGroup.getId());
-        myQuizzes = FXCollections.observableArrayList(quizzes);
+    private Label loadingLabel(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-text-fill: #6c757d;");
+        return label;
+    }
+
+    private Label errorLabel(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-text-fill: #dc3545;");
+        return label;
+    }
+
+    private void showQuizzes(QuizRows rows) {
+        quizStatistics = rows.statistics;
+        myQuizzes = FXCollections.observableArrayList(rows.quizzes);
         filteredQuizzes = new FilteredList<>(myQuizzes, p -> true);
+        quizzesTable.setPlaceholder(quizzesPlaceholder);
         quizzesTable.setItems(filteredQuizzes);
     }
 
-    private void loadStudentsForSelectedGroup() {
-        if (selectedGroup == null) {
-            studentsTable.setItems(FXCollections.observableArrayList());
-            return;
+    private void showQuizzesFailed() {
+        showQuizzes(new QuizRows(new ArrayList<>(), new HashMap<>()));
+        quizzesTable.setPlaceholder(errorLabel("Could not load quizzes."));
+    }
+
+    private void showStudents(StudentRows rows) {
+        studentAverages = rows.averages;
+        studentsTable.setPlaceholder(studentsPlaceholder);
+        studentsTable.setItems(FXCollections.observableArrayList(rows.students));
+    }
+
+    private void showStudentsFailed() {
+        showStudents(new StudentRows(new ArrayList<>(), new HashMap<>()));
+        studentsTable.setPlaceholder(errorLabel("Could not load students."));
+    }
+
+    private void showGroupStats(GroupStats stats) {
+        myQuizzesCount.setText(String.valueOf(stats.quizCount));
+        totalAttemptsCount.setText(String.valueOf(stats.attemptCount));
+        averageScoreLabel.setText(stats.averagePercentage == null
+                ? "N/A"
+                : String.format("%.1f%%", stats.averagePercentage));
+    }
+
+    private void showGroupStatsFailed() {
+        myQuizzesCount.setText("N/A");
+        totalAttemptsCount.setText("N/A");
+        averageScoreLabel.setText("N/A");
+    }
+
+    // Runs on a background thread; two queries however many attempts the group has
+    private GroupStats computeGroupStats(int groupId) {
+        List<QuizSummary> quizzes = quizService.getQuizSummariesByGroup(groupId);
+        int[] quizIds = quizzes.stream().mapToInt(QuizSummary::getId).toArray();
+        Map<Integer, QuizStatistics> statistics = attemptService.getQuizStatistics(quizIds);
+
+        // Average percentage across all attempts: each quiz adds its score sum as a percentage
+        int attemptCount = 0;
+        int scoredAttempts = 0;
+        double percentageSum = 0;
+        for (QuizSummary quiz : quizzes) {
+            QuizStatistics stats = statistics.getOrDefault(quiz.getId(), QuizStatistics.empty(quiz.getId()));
+            attemptCount += stats.getAttemptCount();
+            int totalScore = quiz.getMaxScore();
+            if (totalScore > 0 && stats.hasAttempts()) {
+                percentageSum += stats.getScoreSum() * 100.0 / totalScore;
+                scoredAttempts += stats.getAttemptCount();
+            }
         }
 
-        List<User> students = groupService.getStudentsInGroup(selectedGroup.getId());
-        studentsTable.setItems(FXCollections.observableArrayList(students));
+        Double average = scoredAttempts == 0 ? null : percentageSum / scoredAttempts;
+        return new GroupStats(quizzes.size(), attemptCount, average);
     }
 
-    private void updateStatsForGroup() {
-        if (selectedGroup == null)
-            return;
+    private QuizStatistics statisticsFor(QuizSummary quiz) {
+        return quizStatistics.getOrDefault(quiz.getId(), QuizStatistics.empty(quiz.getId()));
+    }
 
-        List<Quiz> quizzes = quizService.getQuizzesByGroup(selectedGroup.getId());
-        List<QuizAttempt> attempts = quizzes.stream()
-                .flatMap(q -> attemptService.getAttemptsByQuiz(q.getId()).stream())
-                .collect(Collectors.toList());
+    // ========== Incremental refresh (domain events) ==========
 
-        myQuizzesCount.setText(String.valueOf(quizzes.size()));
-        totalAttemptsCount.setText(String.valueOf(attempts.size()));
-
-        if (attempts.isEmpty() || quizzes.isEmpty()) {
-            averageScoreLabel.setText("N/A");
-        } else {
-            // Calculate average percentage across all attempts
-            List<Double> percentages = new ArrayList<>();
-
-            for (QuizAttempt attempt : attempts) {
-                Quiz quiz = quizService.getQuizById(attempt.getQuizId()).orElse(null);
-                if (quiz != null) {
-                    int totalScore = quiz.getQuestions().stream()
-                            .mapToInt(Question::getAssignedScore)
-                            .sum();
-                    if (totalScore > 0) {
-                        double percentage = (attempt.getTotalScore() * 100.0) / totalScore;
-                        percentages.add(percentage);
-                    }
-                }
+    /**
+     * Reload the given quizzes' rows and statistics and the group stats panel. Quizzes that
+     * were deleted or are not in the selected group (any more) leave the table.
+     */
+    private void refreshQuizRows(int... quizIds) {
+        if (selectedGroup == null || myQuizzes == null || quizIds.length == 0) {
+            return;
+        }
+        int generation = groupLoadGeneration;
+        int groupId = selectedGroup.getId();
+        CompletableFuture<QuizPatch> patch = ServiceExecutors.supplyAsync(() -> {
+            Map<Integer, QuizSummary> summaries = new HashMap<>();
+            for (int quizId : quizIds) {
+                quizService.getQuizSummaryById(quizId)
+                        .filter(quiz -> quiz.getGroupId() == groupId)
+                        .ifPresent(quiz -> summaries.put(quizId, quiz));
             }
+            return new QuizPatch(quizIds, summaries, attemptService.getQuizStatistics(quizIds),
+                    computeGroupStats(groupId));
+        });
+        // On failure the rows already shown stay as they are
+        whenLoaded(patch, generation, "quiz rows", this::showQuizPatch, () -> { });
+    }
 
-            if (percentages.isEmpty()) {
-                averageScoreLabel.setText("N/A");
+    private void showQuizPatch(QuizPatch patch) {
+        Map<Integer, QuizStatistics> statistics = new HashMap<>(quizStatistics);
+        for (int quizId : patch.quizIds) {
+            QuizSummary summary = patch.summaries.get(quizId);
+            int row = rowOf(quizId);
+            if (summary == null) {
+                statistics.remove(quizId);
+                if (row >= 0) {
+                    myQuizzes.remove(row);
+                }
             } else {
-                double avgPercentage = percentages.stream()
-                        .mapToDouble(Double::doubleValue)
-                        .average()
-                        .orElse(0.0);
-                averageScoreLabel.setText(String.format("%.1f%%", avgPercentage));
+                statistics.put(quizId, patch.statistics.getOrDefault(quizId, QuizStatistics.empty(quizId)));
+                if (row >= 0) {
+                    myQuizzes.set(row, summary);
+                } else {
+                    myQuizzes.add(summary);
+                }
+            }
+        }
+        quizStatistics = statistics;
+        quizzesTable.refresh();
+        groupsTable.refresh();
+        showGroupStats(patch.groupStats);
+    }
+
+    private int rowOf(int quizId) {
+        for (int i = 0; i < myQuizzes.size(); i++) {
+            if (myQuizzes.get(i).getId() == quizId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // A new attempt changes its quiz's statistics, the group stats and the student's average
+    private void handleAttemptSaved(DomainEvent.AttemptSaved event) {
+        if (myQuizzes == null || rowOf(event.getQuizId()) < 0) {
+            return;
+        }
+        refreshQuizRows(event.getQuizId());
+
+        Optional<User> student = studentsTable.getItems().stream()
+                .filter(user -> user.getId() == event.getStudentId())
+                .findFirst();
+        if (student.isPresent()) {
+            int generation = groupLoadGeneration;
+            int groupId = selectedGroup.getId();
+            CompletableFuture<Map<Integer, Double>> average = ServiceExecutors.supplyAsync(
+                    () -> computeStudentAverages(groupId, List.of(student.get())));
+            whenLoaded(average, generation, "student average", result -> {
+                Map<Integer, Double> averages = new HashMap<>(studentAverages);
+                averages.remove(event.getStudentId());
+                averages.putAll(result);
+                studentAverages = averages;
+                studentsTable.refresh();
+            }, () -> { });
+        }
+
+        // The attempts list is showing this student's attempts at this quiz
+        QuizSummary quiz = quizzesTable.getSelectionModel().getSelectedItem();
+        User selected = studentsTable.getSelectionModel().getSelectedItem();
+        if (quiz != null && selected != null
+                && quiz.getId() == event.getQuizId() && selected.getId() == event.getStudentId()) {
+            updateResultsFilter();
+        }
+    }
+
+    // Reload the students table after an enrollment change, keeping the other parts
+    private void refreshStudents() {
+        int generation = groupLoadGeneration;
+        int groupId = selectedGroup.getId();
+        CompletableFuture<StudentRows> students = ServiceExecutors.supplyAsync(() -> {
+            List<User> result = groupService.getStudentsInGroup(groupId);
+            return new StudentRows(result, computeStudentAverages(groupId, result));
+        });
+        whenLoaded(students, generation, "group students", this::showStudents, this::showStudentsFailed);
+    }
+
+    /**
+     * Each student's average percentage over the group's quizzes (best attempt per quiz).
+     * Two queries for the whole group; students without attempts are left out.
+     */
+    private Map<Integer, Double> computeStudentAverages(int groupId, List<User> students) {
+        Map<Integer, Double> averages = new HashMap<>();
+        List<QuizSummary> groupQuizzes = quizService.getQuizSummariesByGroup(groupId);
+        if (groupQuizzes.isEmpty() || students.isEmpty()) {
+            return averages;
+        }
+
+        int[] studentIds = students.stream().mapToInt(User::getId).toArray();
+        int[] quizIds = groupQuizzes.stream().mapToInt(QuizSummary::getId).toArray();
+        int[] maxScores = groupQuizzes.stream().mapToInt(QuizSummary::getMaxScore).toArray();
+
+        double[] percentages = attemptService.getBestScores(studentIds, quizIds).averagePercentages(maxScores);
+        for (int i = 0; i < studentIds.length; i++) {
+            if (!Double.isNaN(percentages[i])) {
+                averages.put(studentIds[i], percentages[i]);
             }
         }
+        return averages;
+    }
+
+    /**
+     * Quizzes table rows for one group and their attempt statistics.
+     */
+    private static final class QuizRows {
+        private final List<QuizSummary> quizzes;
+        private final Map<Integer, QuizStatistics> statistics;
+
+        private QuizRows(List<QuizSummary> quizzes, Map<Integer, QuizStatistics> statistics) {
+            this.quizzes = quizzes;
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * Students table rows for one group and their averages.
+     */
+    private static final class StudentRows {
+        private final List<User> students;
+        private final Map<Integer, Double> averages;
+
+        private StudentRows(List<User> students, Map<Integer, Double> averages) {
+            this.students = students;
+            this.averages = averages;
+        }
+    }
+
+    /**
+     * Reloaded rows for some quizzes of the selected group; quizzes missing from summaries
+     * were deleted or moved out of the group.
+     */
+    private static final class QuizPatch {
+        private final int[] quizIds;
+        private final Map<Integer, QuizSummary> summaries;
+        private final Map<Integer, QuizStatistics> statistics;
+        private final GroupStats groupStats;
+
+        private QuizPatch(int[] quizIds, Map<Integer, QuizSummary> summaries,
+                          Map<Integer, QuizStatistics> statistics, GroupStats groupStats) {
+            this.quizIds = quizIds;
+            this.summaries = summaries;
+            this.statistics = statistics;
+            this.groupStats = groupStats;
+        }
+    }
+
+    /**
+     * Stats panel values for one group.
+     */
+    private static final class GroupStats {
+        private final int quizCount;
+        private final int attemptCount;
+        private final Double averagePercentage;
+
+        private GroupStats(int quizCount, int attemptCount, Double averagePercentage) {
+            this.quizCount = quizCount;
+            this.attemptCount = attemptCount;
+            this.averagePercentage = averagePercentage;
+        }
     }
 
     private void updateResultsFilter() {
         // Use current selections from the tables to avoid stale references
-        Quiz currentSelectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        QuizSummary currentSelectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
         User currentSelectedStudent = studentsTable.getSelectionModel().getSelectedItem();
 
         if (currentSelectedQuiz == null || currentSelectedStudent == null) {
@@ -551,7 +833,7 @@ public class TeacherDashboardController {
         }
 
         // Load attempts for the specific student and quiz
-        List<QuizAttempt> attempts = attemptService.getStudentAttemptsForQuiz(currentSelectedStudent.getId(), currentSelectedQuiz.getId());
+        List<QuizAttempt> attempts = attemptService.getStudentAttemptSummariesForQuiz(currentSelectedStudent.getId(), currentSelectedQuiz.getId());
 
         // Sort by attempt number (most recent first)
         attempts.sort((a, b) -> Integer.compare(b.getAttemptNumber(), a.getAttemptNumber()));
@@ -628,16 +910,13 @@ public class TeacherDashboardController {
             showAlert(Alert.AlertType.INFORMATION, "Quiz Created",
                     "Quiz '" + quiz.getTitle() + "' created successfully!\n\n" +
                             "Use the '❓ Manage Questions' button to add questions to this quiz.");
-            // Refresh groups table to update quiz counts
-            groupsTable.refresh();
-            loadQuizzesForSelectedGroup();
-            updateStatsForGroup();
+            // The quizzes table and group counts update on the QuizChanged event
         });
     }
 
     @FXML
     private void handleAssignQuiz() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        Quiz selectedQuiz = getSelectedQuiz();
         if (selectedQuiz == null) {
             showAlert(Alert.AlertType.WARNING, "No Quiz Selected",
                     "Please select a quiz from the table to assign.");
@@ -669,12 +948,14 @@ public class TeacherDashboardController {
         VBox content = new VBox(10);
         content.setPadding(new Insets(10));
 
+        // Students already assigned: those in the quiz's group (one in-memory bitmap, no queries)
+        IntBitmap assigned = groupService.getStudentIdsInAnyGroup(selectedQuiz.getGroupId());
         List<CheckBox> checkBoxes = students.stream()
                 .map(student -> {
                     CheckBox cb = new CheckBox(student.getFullName() + " (" + student.getEmail() + ")");
                     cb.setUserData(student);
                     // Pre-check if already assigned
-                    if (quizService.isQuizAssigned(selectedQuiz.getId(), student.getId())) {
+                    if (assigned.contains(student.getId())) {
                         cb.setSelected(true);
                         cb.setStyle("-fx-text-fill: #28a745;");
                     }
@@ -727,7 +1008,7 @@ public class TeacherDashboardController {
 
     @FXML
     private void handleDeleteQuiz() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        Quiz selectedQuiz = getSelectedQuiz();
         if (selectedQuiz == null) {
             showAlert(Alert.AlertType.WARNING, "No Quiz Selected",
                     "Please select a quiz from the table to delete.");
@@ -749,17 +1030,12 @@ public class TeacherDashboardController {
             quizService.deleteQuiz(selectedQuiz.getId());
             showAlert(Alert.AlertType.INFORMATION, "Quiz Deleted",
                     "Quiz '" + selectedQuiz.getTitle() + "' has been deleted.");
-            loadData();
-            if (selectedGroup != null) {
-                loadQuizzesForSelectedGroup();
-                updateStatsForGroup();
-            }
         }
     }
 
     @FXML
     private void handleEditQuiz() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        Quiz selectedQuiz = getSelectedQuiz();
         if (selectedQuiz == null) {
             showAlert(Alert.AlertType.WARNING, "No Quiz Selected",
                     "Please select a quiz from the table to edit.");
@@ -817,7 +1093,6 @@ public class TeacherDashboardController {
             if (quizService.updateQuiz(quiz)) {
                 showAlert(Alert.AlertType.INFORMATION, "Quiz Updated",
                         "Quiz details updated successfully.");
-                quizzesTable.refresh();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to update quiz.");
             }
@@ -826,7 +1101,7 @@ public class TeacherDashboardController {
 
     @FXML
     private void handleManageQuestions() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        Quiz selectedQuiz = getSelectedQuiz();
         if (selectedQuiz == null) {
             showAlert(Alert.AlertType.WARNING, "No Quiz Selected",
                     "Please select a quiz from the table to manage questions.");
@@ -914,9 +1189,6 @@ public class TeacherDashboardController {
 
         dialog.getDialogPane().setContent(content);
         dialog.showAndWait();
-
-        // Refresh main table stats
-        loadQuizzesForSelectedGroup();
     }
 
     private void handleAddQuestionInternal(Quiz quiz, ObservableList<com.example.quizlogic.Question> list) {
@@ -1023,9 +1295,7 @@ public class TeacherDashboardController {
     private void handleRefresh() {
         loadData();
         if (selectedGroup != null) {
-            loadQuizzesForSelectedGroup();
-            loadStudentsForSelectedGroup();
-            updateStatsForGroup();
+            loadSelectedGroup();
         }
         quizSearchField.clear();
         clearResultsFilter();
@@ -1033,7 +1303,7 @@ public class TeacherDashboardController {
 
     @FXML
     private void handleAddQuestions() {
-        Quiz selectedQuiz = quizzesTable.getSelectionModel().getSelectedItem();
+        Quiz selectedQuiz = getSelectedQuiz();
         if (selectedQuiz == null) {
             showAlert(Alert.AlertType.WARNING, "No Quiz Selected",
                     "Please select a quiz from the table to add questions.");
@@ -1167,7 +1437,6 @@ public class TeacherDashboardController {
         if (questionsAdded[0] > 0) {
             showAlert(Alert.AlertType.INFORMATION, "Questions Added",
                     questionsAdded[0] + " question(s) added to quiz successfully!");
-            loadQuizzesForSelectedGroup();
         }
     }
 
@@ -1185,6 +1454,12 @@ public class TeacherDashboardController {
         alert.showAndWait();
     }
 
+    // Helper: the quiz selected in the table, without its questions
+    private Quiz getSelectedQuiz() {
+        QuizSummary summary = quizzesTable.getSelectionModel().getSelectedItem();
+        return summary == null ? null : summary.toQuiz();
+    }
+
     // Helper: check if current user is the author of a quiz or is admin
     private boolean isCurrentUserAuthor(Quiz quiz) {
         if (currentUser == null || quiz == null)
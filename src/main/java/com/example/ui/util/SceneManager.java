@@ -1,13 +1,19 @@
 package com.example.ui.util;
 
+import com.example.service.DomainEvent;
+import com.example.service.DomainEventBus;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Centralized manager for scene navigation.
@@ -19,6 +25,9 @@ public class SceneManager {
     private Stage primaryStage;
     private final Map<String, String> viewPaths;
     private Object currentController;
+    // Event subscriptions of the current view, cancelled when another view is loaded
+    private final List<DomainEventBus.Subscription> viewSubscriptions = new ArrayList<>();
+    private int viewGeneration;
     
     // View constants
     public static final String LOGIN = "login";
@@ -87,6 +96,7 @@ public class SceneManager {
         }
         
         try {
+            closeCurrentView();
             FXMLLoader loader = new FXMLLoader(getClass().getResource(path));
             Parent root = loader.load();
             currentController = loader.getController();
@@ -118,6 +128,7 @@ public class SceneManager {
         }
         
         try {
+            closeCurrentView();
             FXMLLoader loader = new FXMLLoader(getClass().getResource(path));
             Parent root = loader.load();
             T controller = loader.getController();
@@ -140,6 +151,29 @@ public class SceneManager {
         }
     }
     
+    /**
+     * Run the listener on the JavaFX thread for each event of the given type published while
+     * the view being loaded is shown. Controllers call this from initialize(); the subscription
+     * ends when the next view is loaded.
+     */
+    public <E extends DomainEvent> void subscribeWhileShown(Class<E> type, Consumer<? super E> listener) {
+        int generation = viewGeneration;
+        viewSubscriptions.add(DomainEventBus.getInstance().subscribe(type, event -> Platform.runLater(() -> {
+            // Skip events that arrive after the view was replaced
+            if (generation == viewGeneration) {
+                listener.accept(event);
+            }
+        })));
+    }
+
+    private void closeCurrentView() {
+        viewGeneration++;
+        for (DomainEventBus.Subscription subscription : viewSubscriptions) {
+            subscription.cancel();
+        }
+        viewSubscriptions.clear();
+    }
+
     /**
      * Get the current controller.
      */
@@ -0,0 +1,142 @@
+package com.example.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Migrates a seeded pre-migration database (user_version 0) to the current schema and checks
+ * how the old attempts and answers were carried over.
+ *
+ * The seed has one question shared by two quizzes that the student attempted with the same
+ * attempt number, so the answers to it cannot be told apart: they must not be linked to an
+ * attempt, nor count towards either attempt's timestamp.
+ *
+ * Run: java -cp target/classes:target/test-classes:... com.example.database.MigrationCheck
+ */
+public class MigrationCheck {
+
+    // Tables as they were before schema versions existed
+    private static final String[] BASELINE_SCHEMA = {
+            "CREATE TABLE people (id integer PRIMARY KEY, name text NOT NULL, lastname text NOT NULL, "
+                    + "email text NOT NULL, password text NOT NULL, role text NOT NULL)",
+            "CREATE TABLE groups (id integer PRIMARY KEY, name text NOT NULL, teacher_id integer NOT NULL)",
+            "CREATE TABLE enrollment (group_id integer NOT NULL, student_id integer NOT NULL)",
+            "CREATE TABLE quiz (id integer PRIMARY KEY, quiz_name text NOT NULL, description text NOT NULL, "
+                    + "group_id integer NOT NULL)",
+            "CREATE TABLE mcq (id integer PRIMARY KEY, question text NOT NULL, optionA text NOT NULL, "
+                    + "optionB text NOT NULL, optionC text NOT NULL, optionD text NOT NULL, "
+                    + "correct_option char NOT NULL, assigned_score integer NOT NULL)",
+            "CREATE TABLE quizQuestion (quiz_id integer NOT NULL, question_id integer NOT NULL)",
+            "CREATE TABLE scores (quiz_id integer NOT NULL, student_id integer NOT NULL, "
+                    + "attempt integer NOT NULL, score integer NOT NULL)",
+            "CREATE TABLE mcqStudentAnswer (id integer PRIMARY KEY, question_id integer NOT NULL, "
+                    + "student_id integer NOT NULL, attempt integer NOT NULL, selected_option char NOT NULL, "
+                    + "is_correct boolean NOT NULL, score int NOT NULL, date date NOT NULL)"
+    };
+
+    // Quiz 1 has questions 1 and 2, quiz 2 has questions 1 and 3: question 1 is shared.
+    // Student 2 took quiz 1 twice and quiz 2 once; both first attempts answered question 1.
+    private static final String[] SEED = {
+            "INSERT INTO people VALUES (1, 'Tina', 'Teacher', 't@quiz.com', 'pw', 'teacher')",
+            "INSERT INTO people VALUES (2, 'Sam', 'Student', 's@quiz.com', 'pw', 'student')",
+            "INSERT INTO groups VALUES (1, 'G1', 1)",
+            "INSERT INTO enrollment VALUES (1, 2)",
+            "INSERT INTO quiz VALUES (1, 'Quiz A', 'first', 1)",
+            "INSERT INTO quiz VALUES (2, 'Quiz B', 'second', 1)",
+            "INSERT INTO mcq VALUES (1, 'Shared?', 'a', 'b', 'c', 'd', 'A', 5)",
+            "INSERT INTO mcq VALUES (2, 'Only A?', 'a', 'b', 'c', 'd', 'B', 5)",
+            "INSERT INTO mcq VALUES (3, 'Only B?', 'a', 'b', 'c', 'd', 'C', 5)",
+            "INSERT INTO quizQuestion VALUES (1, 1), (1, 2), (2, 1), (2, 3)",
+            // Become attempts 1, 2 and 3 (ids keep the rowids)
+            "INSERT INTO scores VALUES (1, 2, 1, 10), (2, 2, 1, 5), (1, 2, 2, 5)",
+            "INSERT INTO mcqStudentAnswer VALUES (1, 1, 2, 1, 'A', 1, 5, '2024-01-10')",
+            "INSERT INTO mcqStudentAnswer VALUES (2, 2, 2, 1, 'B', 1, 5, '2024-01-10')",
+            "INSERT INTO mcqStudentAnswer VALUES (3, 1, 2, 1, 'B', 0, 0, '2024-02-20')",
+            "INSERT INTO mcqStudentAnswer VALUES (4, 3, 2, 1, 'C', 1, 5, '2024-02-20')",
+            "INSERT INTO mcqStudentAnswer VALUES (5, 1, 2, 2, 'C', 0, 0, '2024-03-05')",
+            "INSERT INTO mcqStudentAnswer VALUES (6, 2, 2, 2, 'B', 1, 5, '2024-03-05')"
+    };
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException, SQLException {
+        File file = File.createTempFile("migration-check", ".db");
+        try {
+            List<String> failures = new MigrationCheck().run(file);
+            if (failures.isEmpty()) {
+                System.out.println("Migration check OK.");
+            } else {
+                failures.forEach(failure -> System.err.println("FAILED: " + failure));
+                System.exit(1);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private List<String> run(File file) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getPath())) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : BASELINE_SCHEMA) {
+                    stmt.execute(sql);
+                }
+                for (String sql : SEED) {
+                    stmt.executeUpdate(sql);
+                }
+            }
+
+            DatabaseManager.createAllTables(conn);
+
+            expect("schema version", DatabaseManager.getLatestSchemaVersion(), DatabaseManager.getSchemaVersion(conn));
+            // Only the answers to questions 2 and 3 tell the first attempts' days apart
+            expect("attempted_at of attempt 1", "2024-01-10T00:00", attemptedAt(conn, 1));
+            expect("attempted_at of attempt 2", "2024-02-20T00:00", attemptedAt(conn, 2));
+            expect("attempted_at of attempt 3", "2024-03-05T00:00", attemptedAt(conn, 3));
+            expect("attempt_id of answer 1 (shared question)", null, attemptId(conn, 1));
+            expect("attempt_id of answer 2", 1, attemptId(conn, 2));
+            expect("attempt_id of answer 3 (shared question)", null, attemptId(conn, 3));
+            expect("attempt_id of answer 4", 2, attemptId(conn, 4));
+            // Quiz 2 has no second attempt, so the shared question is clear here
+            expect("attempt_id of answer 5", 3, attemptId(conn, 5));
+            expect("attempt_id of answer 6", 3, attemptId(conn, 6));
+        }
+        return failures;
+    }
+
+    private void expect(String what, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            failures.add(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static String attemptedAt(Connection conn, int attemptId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT attempted_at FROM scores WHERE id=?")) {
+            stmt.setInt(1, attemptId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static Integer attemptId(Connection conn, int answerId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT attempt_id FROM mcqStudentAnswer WHERE id=?")) {
+            stmt.setInt(1, answerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                int id = rs.getInt(1);
+                return rs.wasNull() ? null : id;
+            }
+        }
+    }
+}
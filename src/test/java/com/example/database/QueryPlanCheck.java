@@ -0,0 +1,154 @@
+package com.example.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over the lookups the services issue and reports any that
+ * fall back to a full table scan. The statements are the ones the services run (see
+ * ServiceQueries); register a new lookup below when a service gains one.
+ *
+ * Run on demand after a schema or query change, not at startup. It checks a fresh database
+ * built by the migrations, or the database file given as the first argument:
+ *   java -cp target/classes:target/test-classes:... com.example.database.QueryPlanCheck [file.db]
+ */
+public class QueryPlanCheck {
+
+    // Service query name -> SQL (parameters are bound to 0 for planning)
+    private static final Map<String, String> SERVICE_QUERIES = new LinkedHashMap<>();
+
+    static {
+        SERVICE_QUERIES.put("RetrieveFromDatabase.getTeacherId", RetrieveFromDatabase.TEACHER_ID_BY_EMAIL);
+        SERVICE_QUERIES.put("AuthService.login", ServiceQueries.LOGIN);
+        SERVICE_QUERIES.put("UserService.getUserByEmail", ServiceQueries.USER_BY_EMAIL);
+        SERVICE_QUERIES.put("UserService.getUsersByRole", ServiceQueries.USERS_BY_ROLE);
+        SERVICE_QUERIES.put("UserService.countUsersByRole", ServiceQueries.COUNT_USERS_BY_ROLE);
+        SERVICE_QUERIES.put("GroupService.getGroupsByTeacher", ServiceQueries.GROUPS_BY_TEACHER);
+        SERVICE_QUERIES.put("GroupService.getGroupByName", ServiceQueries.GROUP_BY_NAME);
+        SERVICE_QUERIES.put("GroupService.getGroupsByStudent", ServiceQueries.GROUPS_BY_STUDENT);
+        SERVICE_QUERIES.put("GroupService.getStudentsInGroup", ServiceQueries.STUDENTS_IN_GROUP);
+        SERVICE_QUERIES.put("QuizService.getQuizById", ServiceQueries.QUIZ_BY_ID);
+        SERVICE_QUERIES.put("QuizService.getQuizzesByGroup", ServiceQueries.QUIZZES_BY_GROUP);
+        SERVICE_QUERIES.put("QuizService.getQuizzesByGroup (questions)",
+                ServiceQueries.questionsOfQuizzes(ServiceQueries.QUIZ_IDS_BY_GROUP));
+        SERVICE_QUERIES.put("QuizService.getQuizzesByTeacher", ServiceQueries.QUIZZES_BY_TEACHER);
+        SERVICE_QUERIES.put("QuizService.getQuizzesByTeacher (questions)",
+                ServiceQueries.questionsOfQuizzes(ServiceQueries.QUIZ_IDS_BY_TEACHER));
+        SERVICE_QUERIES.put("QuizService.getAssignedQuizzes", ServiceQueries.quizzesInGroups(2));
+        SERVICE_QUERIES.put("QuizService.getAssignedQuizzes (questions)",
+                ServiceQueries.questionsOfQuizzes(ServiceQueries.quizIdsInGroups(2)));
+        SERVICE_QUERIES.put("QuizService.getQuestionsByQuiz", ServiceQueries.QUESTIONS_BY_QUIZ);
+        SERVICE_QUERIES.put("QuizService.getQuizSummaryById", ServiceQueries.QUIZ_SUMMARY_BY_ID);
+        SERVICE_QUERIES.put("QuizService.getQuizSummariesByTeacher", ServiceQueries.QUIZ_SUMMARIES_BY_TEACHER);
+        SERVICE_QUERIES.put("QuizService.getQuizSummariesByGroup", ServiceQueries.QUIZ_SUMMARIES_BY_GROUP);
+        SERVICE_QUERIES.put("QuizService.getAssignedQuizSummaries", ServiceQueries.ASSIGNED_QUIZ_SUMMARIES);
+        SERVICE_QUERIES.put("QuizService.getAssignedQuizSnapshots", ServiceQueries.ASSIGNED_QUIZ_SNAPSHOTS);
+        SERVICE_QUERIES.put("QuizService.deleteQuestion", ServiceQueries.DELETE_QUESTION_LINKS);
+        SERVICE_QUERIES.put("QuizService.refreshMaxScore", ServiceQueries.REFRESH_MAX_SCORE);
+        SERVICE_QUERIES.put("QuizService.deleteQuiz(answers)", ServiceQueries.DELETE_QUIZ_ANSWERS);
+        SERVICE_QUERIES.put("AttemptService.getStudentAttemptsForQuiz",
+                ServiceQueries.attempts(ServiceQueries.BY_STUDENT_AND_QUIZ));
+        SERVICE_QUERIES.put("AttemptService.getAttemptsByStudent", ServiceQueries.attempts(ServiceQueries.BY_STUDENT));
+        SERVICE_QUERIES.put("AttemptService.getAttemptsByQuiz", ServiceQueries.attempts(ServiceQueries.BY_QUIZ));
+        SERVICE_QUERIES.put("AttemptService.getAttemptById", ServiceQueries.attempts(ServiceQueries.BY_ID));
+        SERVICE_QUERIES.put("AttemptService.getAnswersByAttempt(id)",
+                ServiceQueries.answersOfAttempts(ServiceQueries.BY_ID));
+        SERVICE_QUERIES.put("AttemptService.getAnswersByAttempt(student, quiz)",
+                ServiceQueries.answersOfAttempts(ServiceQueries.BY_STUDENT_AND_QUIZ));
+        SERVICE_QUERIES.put("AttemptService.getAnswersByAttempt(student)",
+                ServiceQueries.answersOfAttempts(ServiceQueries.BY_STUDENT));
+        SERVICE_QUERIES.put("AttemptService.getAnswersByAttempt(quiz)",
+                ServiceQueries.answersOfAttempts(ServiceQueries.BY_QUIZ));
+        SERVICE_QUERIES.put("AttemptService.getBestScore", ServiceQueries.BEST_SCORE);
+        SERVICE_QUERIES.put("AttemptService.getBestScores", ServiceQueries.bestScores(2, 2));
+        SERVICE_QUERIES.put("AttemptService.getQuizStatistics", ServiceQueries.quizStatistics(2));
+        SERVICE_QUERIES.put("AttemptService.getAverageScoreForStudent", ServiceQueries.AVERAGE_SCORE_FOR_STUDENT);
+        SERVICE_QUERIES.put("AttemptService.getAttemptCount", ServiceQueries.ATTEMPT_COUNT);
+        SERVICE_QUERIES.put("AttemptService.getQuestionAccuracyForQuiz", ServiceQueries.QUESTION_ACCURACY);
+        SERVICE_QUERIES.put("AttemptService.getAttemptsToday", ServiceQueries.ATTEMPTS_BETWEEN);
+        SERVICE_QUERIES.put("QuizStatsTable.recordAttempt", QuizStatsTable.RECORD_ATTEMPT);
+        SERVICE_QUERIES.put("RetrieveFromDatabase.getNextAttemptNumber", RetrieveFromDatabase.NEXT_ATTEMPT_NUMBER);
+        SERVICE_QUERIES.put("RetrieveFromDatabase.getScores", RetrieveFromDatabase.SCORES);
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        boolean ok;
+        if (args.length > 0) {
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + args[0])) {
+                ok = verify(conn);
+            }
+        } else {
+            File file = File.createTempFile("query-plan-check", ".db");
+            try {
+                try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getPath())) {
+                    DatabaseManager.createAllTables(conn);
+                    ok = verify(conn);
+                }
+            } finally {
+                file.delete();
+            }
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Explain every service query and return the ones whose plan contains a full table scan.
+     * @return map of query name to the offending plan line (empty when every query uses an index)
+     */
+    public static Map<String, String> findFullScans(Connection conn) throws SQLException {
+        Map<String, String> fullScans = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : SERVICE_QUERIES.entrySet()) {
+            for (String detail : explain(conn, entry.getValue())) {
+                // "SCAN t USING [COVERING] INDEX ..." is fine, a bare "SCAN t" reads every row
+                if (detail.startsWith("SCAN ") && !detail.contains(" USING ")) {
+                    fullScans.put(entry.getKey(), detail);
+                    break;
+                }
+            }
+        }
+        return fullScans;
+    }
+
+    /**
+     * Print a short report.
+     * @return true if every service query uses an index
+     */
+    public static boolean verify(Connection conn) throws SQLException {
+        Map<String, String> fullScans = findFullScans(conn);
+        if (fullScans.isEmpty()) {
+            System.out.println("Query plans OK: all " + SERVICE_QUERIES.size() + " service queries use an index.");
+            return true;
+        }
+        fullScans.forEach((name, detail) ->
+                System.err.println("WARNING: " + name + " does a full table scan (" + detail + ")"));
+        return false;
+    }
+
+    // Returns the "detail" column of each EXPLAIN QUERY PLAN row
+    public static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> details = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int params = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                stmt.setInt(i, 0);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    details.add(rs.getString("detail"));
+                }
+            }
+        }
+        return details;
+    }
+}
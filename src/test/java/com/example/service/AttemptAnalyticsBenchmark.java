@@ -0,0 +1,291 @@
+package com.example.service;
+
+import com.example.database.DatabaseManager;
+import com.example.database.QuizStatsTable;
+import com.example.quizlogic.QuizAttempt;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the AttemptService analytics defaults (load every attempt with its answers, then
+ * aggregate in Java) with the SQL aggregates in DatabaseAttemptService.
+ *
+ * Builds its own database, by default 200 students x 50 quizzes x 10 attempts = 100,000
+ * attempts of 5 answers each, in a new file that is deleted afterwards. It refuses to run on
+ * a file that already exists, so it can never touch the application database.
+ *
+ * Run: java -cp target/classes:target/test-classes:... com.example.service.AttemptAnalyticsBenchmark [new database file]
+ * Sizes: -Dquiz.bench.students, -Dquiz.bench.quizzes, -Dquiz.bench.attemptsPerQuiz
+ */
+public class AttemptAnalyticsBenchmark {
+
+    private static final int STUDENTS = Integer.getInteger("quiz.bench.students", 200);
+    private static final int QUIZZES = Integer.getInteger("quiz.bench.quizzes", 50);
+    private static final int ATTEMPTS_PER_QUIZ = Integer.getInteger("quiz.bench.attemptsPerQuiz", 10);
+    private static final int QUESTIONS_PER_QUIZ = 5;
+    private static final int QUESTION_SCORE = 20;
+
+    // Calls measured per method
+    private static final int PAIR_CALLS = 200;
+    private static final int QUIZ_CALLS = 20;
+    private static final int STUDENT_CALLS = 50;
+
+    public static void main(String[] args) throws IOException, SQLException {
+        File file = args.length > 0
+                ? new File(args[0])
+                : new File(Files.createTempDirectory("attempt-benchmark").toFile(), "attempt-benchmark.db");
+        File[] files = {file, new File(file.getPath() + "-wal"), new File(file.getPath() + "-shm")};
+        for (File existing : files) {
+            if (existing.exists()) {
+                System.err.println("Refusing to use " + existing.getCanonicalPath()
+                        + ": it already exists. Give the path of a new file.");
+                return;
+            }
+        }
+        // Must be set before DatabaseManager is first used
+        System.setProperty("quiz.db.path", file.getPath());
+
+        try {
+            DatabaseManager.createAllTables();
+            long start = System.nanoTime();
+            int[][] ids = seed();
+            System.out.printf("Seeded %,d attempts (%,d answers) in %.1f s%n",
+                    STUDENTS * QUIZZES * ATTEMPTS_PER_QUIZ,
+                    STUDENTS * QUIZZES * ATTEMPTS_PER_QUIZ * QUESTIONS_PER_QUIZ,
+                    (System.nanoTime() - start) / 1e9);
+
+            int[] students = ids[0];
+            int[] quizzes = ids[1];
+            DatabaseAttemptService sql = new DatabaseAttemptService();
+            AttemptService defaults = defaultsOnly(sql);
+
+            checkSameResults(defaults, sql, students, quizzes);
+
+            System.out.printf("%-28s %14s %14s %9s%n", "method", "defaults ms", "SQL ms", "speedup");
+            compare("getBestScore", PAIR_CALLS,
+                    i -> defaults.getBestScore(students[i % students.length], quizzes[i % quizzes.length]),
+                    i -> sql.getBestScore(students[i % students.length], quizzes[i % quizzes.length]));
+            compare("getAttemptCount", PAIR_CALLS,
+                    i -> defaults.getAttemptCount(students[i % students.length], quizzes[i % quizzes.length]),
+                    i -> sql.getAttemptCount(students[i % students.length], quizzes[i % quizzes.length]));
+            compare("getAverageScoreForQuiz", QUIZ_CALLS,
+                    i -> defaults.getAverageScoreForQuiz(quizzes[i % quizzes.length]),
+                    i -> sql.getAverageScoreForQuiz(quizzes[i % quizzes.length]));
+            compare("getAverageScoreForStudent", STUDENT_CALLS,
+                    i -> defaults.getAverageScoreForStudent(students[i % students.length]),
+                    i -> sql.getAverageScoreForStudent(students[i % students.length]));
+        } finally {
+            DatabaseManager.shutdown();
+            // Only files this run created
+            for (File created : files) {
+                created.delete();
+            }
+            if (args.length == 0) {
+                file.getParentFile().delete();
+            }
+        }
+    }
+
+    // Teacher, group, quizzes with questions, students, and their attempts; returns {studentIds, quizIds}
+    private static int[][] seed() throws SQLException {
+        return DatabaseManager.executeInTransaction(conn -> {
+            int[] students = new int[STUDENTS];
+            int[] quizzes = new int[QUIZZES];
+            int[][] questions = new int[QUIZZES][QUESTIONS_PER_QUIZ];
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO people(name, lastname, email, password, role) "
+                        + "VALUES('Bench', 'Teacher', 'bench.teacher@quiz.com', 'x', 'teacher')");
+                stmt.executeUpdate("INSERT INTO groups(name, teacher_id) "
+                        + "VALUES('Bench', (SELECT id FROM people WHERE email='bench.teacher@quiz.com'))");
+            }
+            try (PreparedStatement person = conn.prepareStatement(
+                    "INSERT INTO people(name, lastname, email, password, role) VALUES('Bench', ?, ?, 'x', 'student')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int s = 0; s < STUDENTS; s++) {
+                    person.setString(1, "Student" + s);
+                    person.setString(2, "bench.student" + s + "@quiz.com");
+                    person.executeUpdate();
+                    students[s] = generatedId(person);
+                }
+            }
+            try (PreparedStatement quiz = conn.prepareStatement(
+                    "INSERT INTO quiz(quiz_name, description, group_id) VALUES(?, 'benchmark', "
+                            + "(SELECT id FROM groups WHERE name='Bench'))", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement question = conn.prepareStatement(
+                         "INSERT INTO mcq(question, optionA, optionB, optionC, optionD, correct_option, assigned_score) "
+                                 + "VALUES(?, 'a', 'b', 'c', 'd', 'A', ?)", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement link = conn.prepareStatement(
+                         "INSERT INTO quizQuestion(quiz_id, question_id) VALUES(?, ?)")) {
+                for (int q = 0; q < QUIZZES; q++) {
+                    quiz.setString(1, "Bench quiz " + q);
+                    quiz.executeUpdate();
+                    quizzes[q] = generatedId(quiz);
+                    for (int n = 0; n < QUESTIONS_PER_QUIZ; n++) {
+                        question.setString(1, "Question " + n + " of quiz " + q);
+                        question.setInt(2, QUESTION_SCORE);
+                        question.executeUpdate();
+                        questions[q][n] = generatedId(question);
+                        link.setInt(1, quizzes[q]);
+                        link.setInt(2, questions[q][n]);
+                        link.executeUpdate();
+                    }
+                }
+            }
+
+            Random random = new Random(42);
+            String now = LocalDateTime.now().toString();
+            String today = LocalDate.now().toString();
+            try (PreparedStatement score = conn.prepareStatement(
+                    "INSERT INTO scores(quiz_id, student_id, attempt, score, attempted_at) VALUES(?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement answer = conn.prepareStatement(
+                         "INSERT INTO mcqStudentAnswer(question_id, student_id, attempt, selected_option, is_correct, "
+                                 + "score, date, attempt_id) VALUES(?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int s = 0; s < STUDENTS; s++) {
+                    for (int q = 0; q < QUIZZES; q++) {
+                        for (int a = 1; a <= ATTEMPTS_PER_QUIZ; a++) {
+                            boolean[] correct = new boolean[QUESTIONS_PER_QUIZ];
+                            int total = 0;
+                            for (int n = 0; n < QUESTIONS_PER_QUIZ; n++) {
+                                correct[n] = random.nextBoolean();
+                                total += correct[n] ? QUESTION_SCORE : 0;
+                            }
+                            score.setInt(1, quizzes[q]);
+                            score.setInt(2, students[s]);
+                            score.setInt(3, a);
+                            score.setInt(4, total);
+                            score.setString(5, now);
+                            score.executeUpdate();
+                            int attemptId = generatedId(score);
+
+                            for (int n = 0; n < QUESTIONS_PER_QUIZ; n++) {
+                                answer.setInt(1, questions[q][n]);
+                                answer.setInt(2, students[s]);
+                                answer.setInt(3, a);
+                                answer.setString(4, correct[n] ? "A" : "B");
+                                answer.setBoolean(5, correct[n]);
+                                answer.setInt(6, correct[n] ? QUESTION_SCORE : 0);
+                                answer.setString(7, today);
+                                answer.setInt(8, attemptId);
+                                answer.addBatch();
+                            }
+                        }
+                    }
+                    answer.executeBatch();
+                }
+            }
+            // Scores were inserted directly, so fill quizStats the way --rebuild-stats does
+            QuizStatsTable.rebuild(conn);
+            return new int[][]{students, quizzes};
+        });
+    }
+
+    private static int generatedId(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        }
+        throw new SQLException("No generated id");
+    }
+
+    // Both versions must agree before their timings mean anything
+    private static void checkSameResults(AttemptService defaults, AttemptService sql, int[] students, int[] quizzes) {
+        int student = students[0];
+        int quiz = quizzes[0];
+        boolean same = defaults.getBestScore(student, quiz).equals(sql.getBestScore(student, quiz))
+                && defaults.getAttemptCount(student, quiz) == sql.getAttemptCount(student, quiz)
+                && Math.abs(defaults.getAverageScoreForQuiz(quiz) - sql.getAverageScoreForQuiz(quiz)) < 1e-9
+                && Math.abs(defaults.getAverageScoreForStudent(student) - sql.getAverageScoreForStudent(student)) < 1e-9;
+        if (!same) {
+            throw new IllegalStateException("Default and SQL analytics disagree");
+        }
+    }
+
+    private static void compare(String name, int calls, IntConsumer defaults, IntConsumer sql) {
+        // One untimed pass each to warm up the JIT and the statement cache
+        run(defaults, Math.min(calls, 5));
+        run(sql, Math.min(calls, 5));
+        double defaultsMs = run(defaults, calls) / calls;
+        double sqlMs = run(sql, calls) / calls;
+        System.out.printf("%-28s %14.3f %14.3f %8.0fx%n", name, defaultsMs, sqlMs, defaultsMs / sqlMs);
+    }
+
+    // Total milliseconds for calls 0..calls-1
+    private static double run(IntConsumer call, int calls) {
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            call.accept(i);
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    // Only the abstract methods are forwarded, so the analytics run the interface defaults
+    private static AttemptService defaultsOnly(AttemptService service) {
+        return new AttemptService() {
+            @Override
+            public QuizAttempt saveAttempt(QuizAttempt attempt) {
+                return service.saveAttempt(attempt);
+            }
+
+            @Override
+            public List<QuizAttempt> getAttemptsByStudent(int studentId) {
+                return service.getAttemptsByStudent(studentId);
+            }
+
+            @Override
+            public List<QuizAttempt> getAttemptsByQuiz(int quizId) {
+                return service.getAttemptsByQuiz(quizId);
+            }
+
+            @Override
+            public Optional<QuizAttempt> getAttemptById(int attemptId) {
+                return service.getAttemptById(attemptId);
+            }
+
+            @Override
+            public List<QuizAttempt> getStudentAttemptsForQuiz(int studentId, int quizId) {
+                return service.getStudentAttemptsForQuiz(studentId, quizId);
+            }
+
+            @Override
+            public boolean hasStudentAttemptedQuiz(int studentId, int quizId) {
+                return service.hasStudentAttemptedQuiz(studentId, quizId);
+            }
+
+            @Override
+            public int getTotalAttemptCount() {
+                return service.getTotalAttemptCount();
+            }
+
+            @Override
+            public int getAttemptsToday() {
+                return service.getAttemptsToday();
+            }
+
+            @Override
+            public Map<Integer, Double> getQuestionAccuracyForQuiz(int quizId) {
+                return service.getQuestionAccuracyForQuiz(quizId);
+            }
+
+            @Override
+            public Map<String, Integer> getScoreDistribution(int quizId) {
+                return service.getScoreDistribution(quizId);
+            }
+        };
+    }
+}